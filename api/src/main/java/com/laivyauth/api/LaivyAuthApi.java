@@ -3,12 +3,14 @@ package com.laivyauth.api;
 import com.laivyauth.api.account.Account;
 import com.laivyauth.api.config.Configuration;
 import com.laivyauth.api.exception.AccountExistsException;
+import com.laivyauth.api.password.PasswordHasher;
 import com.laivyauth.api.platform.Platform;
 import com.laivyauth.api.platform.Version;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.Closeable;
 import java.io.File;
+import java.net.InetAddress;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,6 +26,11 @@ public interface LaivyAuthApi extends Closeable {
 
     @NotNull File getDataFolder();
 
+    /**
+     * @return the hasher of the configured algorithm, used to hash the accounts' passwords.
+     */
+    @NotNull PasswordHasher getPasswordHasher();
+
     // Accounts
 
     @NotNull Optional<Account> getAccount(@NotNull String nickname);
@@ -32,4 +39,50 @@ public interface LaivyAuthApi extends Closeable {
 
     @NotNull Account create(@NotNull UUID uuid, @NotNull String nickname) throws AccountExistsException;
 
+    /**
+     * Checks if the account is authenticated without retrieving it, it's lock-free and safe to be
+     * called by the network threads.
+     *
+     * @param uuid the account's unique id
+     * @return true if the account exists and is authenticated.
+     */
+    boolean isAuthenticated(@NotNull UUID uuid);
+
+    /**
+     * Keeps the account with this unique id at memory until it's released, even if the database isn't
+     * buffered and the account isn't used for a while. The connections hold the accounts they reference,
+     * so an account is never unloaded (and loaded again as another instance) before the player joins.
+     * <p>
+     * The holds are counted, each one must be released exactly once.
+     *
+     * @param uuid the account's unique id, the account doesn't need to be loaded or even exist yet
+     */
+    void hold(@NotNull UUID uuid);
+
+    /**
+     * Releases a hold of the account with this unique id.
+     *
+     * @param uuid the account's unique id
+     * @see #hold(UUID)
+     */
+    void release(@NotNull UUID uuid);
+
+    // Players
+
+    /**
+     * @param address the players' address, as the server's network manager sees it (the forwarded
+     *                one behind a proxy with ip forwarding)
+     * @return the number of online players connected using the address.
+     */
+    int getOnlineCount(@NotNull InetAddress address);
+
+    /**
+     * Checks if there's an online player with the nickname. The nicknames are compared ignoring the case
+     * if the nicknames are case-sensitive, since a player cannot join with another case of an online nickname.
+     *
+     * @param nickname the player's nickname
+     * @return true if there's an online player with the nickname.
+     */
+    boolean isOnline(@NotNull String nickname);
+
 }
\ No newline at end of file
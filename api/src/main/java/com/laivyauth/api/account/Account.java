@@ -20,7 +20,18 @@ public interface Account extends Serializable {
 
     @NotNull UUID getUniqueId();
 
+    /**
+     * @return the stored password, an encoded hash (see {@link com.laivyauth.api.password.PasswordHasher}),
+     * or null if the account isn't registered.
+     */
     char @Nullable [] getPassword();
+
+    /**
+     * Changes the password, it's hashed before being stored. Hashing is a slow operation,
+     * so it's recommended to not call this method at the server's main thread.
+     *
+     * @param password the plain password, or null to unregister the account.
+     */
     void setPassword(char @Nullable [] password);
 
     @Nullable Type getType();
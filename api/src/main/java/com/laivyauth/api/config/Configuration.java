@@ -16,13 +16,16 @@ public interface Configuration {
     boolean isStopServerIfFails();
     boolean isBufferedDatabase();
 
+    @NotNull Database getDatabase();
     @NotNull Metrics getMetrics();
     @NotNull Accounts getAccounts();
+    @NotNull Passwords getPasswords();
     @NotNull WeakPasswords getWeakPasswords();
     @NotNull Unauthenticated getUnauthenticated();
     @NotNull Updates getUpdates();
     @NotNull PremiumAuthentication getPremiumAuthentication();
     @NotNull Authentication getAuthentication();
+    @NotNull Admission getAdmission();
     @NotNull Whitelist getWhitelist();
     @NotNull Captchas getCaptchas();
     @NotNull TwoFactorAccess getTwoFactorAccess();
@@ -32,6 +35,61 @@ public interface Configuration {
 
     // Classes
 
+    interface Database {
+
+        /**
+         * @return the maximum amount of offline players' accounts kept at memory when the database isn't buffered.
+         */
+        int getCacheSize();
+
+        /**
+         * @return the interval between the writes of the modified accounts into the disk.
+         */
+        @NotNull Duration getFlushInterval();
+
+        /**
+         * @return the backend where the accounts are stored.
+         */
+        @NotNull Storage getStorage();
+
+        /**
+         * @return the sql connection settings, used when the storage is {@link Storage#SQL}.
+         */
+        @NotNull Sql getSql();
+
+        // Classes
+
+        interface Sql {
+
+            @NotNull String getUrl();
+            @NotNull String getUsername();
+            @NotNull String getPassword();
+
+            @NotNull String getTable();
+            int getPoolSize();
+
+        }
+
+        enum Storage {
+
+            /**
+             * Each account is stored at its own json file, at the database folder.
+             */
+            JSON,
+            /**
+             * All the accounts are stored at a single binary append-only file, at the database folder.
+             */
+            LOG,
+            /**
+             * All the accounts are stored at a sql database table. It must not be shared between multiple
+             * servers, each one keeps its own copy of the accounts at memory and overwrites the others' changes.
+             */
+            SQL,
+            ;
+
+        }
+
+    }
     interface Metrics {
         boolean isPublicVisibility();
     }
@@ -40,6 +98,31 @@ public interface Configuration {
         int getMaximumRegisteredPerIp();
         int getMaximumAuthenticatedPerIp();
 
+    }
+    interface Passwords {
+
+        /**
+         * @return the algorithm used to hash the new passwords. The passwords hashed with another
+         * algorithm remain valid, and are hashed again at the next successful login.
+         */
+        @NotNull Algorithm getAlgorithm();
+
+        /**
+         * @return the maximum number of passwords being hashed or verified at the same time.
+         */
+        int getHashingThreads();
+
+        // Classes
+
+        enum Algorithm {
+
+            ARGON2ID,
+            BCRYPT,
+            PBKDF2,
+            ;
+
+        }
+
     }
     interface WeakPasswords {
 
@@ -56,6 +139,11 @@ public interface Configuration {
         @NotNull Movement getMovement();
         @NotNull Visibility getVisibility();
 
+        /**
+         * @return the commands the unauthenticated players are allowed to use, besides the authentication ones.
+         */
+        @NotNull String @NotNull [] getAllowedCommands();
+
         // Classes
 
         interface Movement {
@@ -95,12 +183,59 @@ public interface Configuration {
         boolean isEnabled();
         @NotNull Duration getReconnectTimeout();
 
+        int getVerificationThreads();
+        @NotNull Duration getVerificationTimeout();
+
     }
     interface Authentication {
 
         @NotNull Duration getTimeout();
         boolean isRequiredForPremiumPlayers();
 
+        /**
+         * @return the maximum number of logins being completed (the pre-login events being fired) at the same time.
+         */
+        int getLoginThreads();
+
+    }
+    interface Admission {
+
+        /**
+         * @return true if the new connections are rate limited before reaching the server.
+         */
+        boolean isEnabled();
+
+        /**
+         * @return the limit of new connections from the same address.
+         */
+        @NotNull Limit getAddress();
+
+        /**
+         * @return the limit of new connections from the same subnet, the /24 for IPv4 and the /48 for IPv6.
+         */
+        @NotNull Limit getSubnet();
+
+        /**
+         * @return the limit of new connections from all the addresses together.
+         */
+        @NotNull Limit getGlobal();
+
+        // Classes
+
+        interface Limit {
+
+            /**
+             * @return the number of new connections allowed per second, or zero if it's unlimited.
+             */
+            double getRate();
+
+            /**
+             * @return the number of new connections allowed at once, after a period without connections.
+             */
+            int getBurst();
+
+        }
+
     }
     interface Whitelist {
 
@@ -0,0 +1,50 @@
+package com.laivyauth.api.password;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A password hashing algorithm. The hashes are encoded as self-describing strings, carrying the
+ * algorithm identifier, the cost parameters and the salt (e.g. {@code $argon2id$v=19$m=19456,t=2,p=1$<salt>$<hash>}),
+ * so the stored passwords remain verifiable after the configured algorithm or costs change.
+ * <p>
+ * Hashing and verifying are intentionally slow operations, and must not be executed at the server's main thread.
+ */
+public interface PasswordHasher {
+
+    /**
+     * @return the algorithm identifier, the same used at the beginning of the encoded hashes
+     */
+    @NotNull String getAlgorithm();
+
+    /**
+     * @param hash the encoded hash
+     * @return true if this hasher is able to verify the encoded hash
+     */
+    boolean isCompatible(@NotNull String hash);
+
+    /**
+     * @param hash the encoded hash
+     * @return true if the encoded hash was generated with different (usually weaker) cost parameters
+     * than the current ones, and should be hashed again at the next successful verification.
+     */
+    boolean isOutdated(@NotNull String hash);
+
+    /**
+     * Hashes the password, using a new random salt.
+     *
+     * @param password the plain password
+     * @return the encoded hash
+     */
+    @NotNull String hash(char @NotNull [] password);
+
+    /**
+     * Checks if the password matches the encoded hash.
+     *
+     * @param password the plain password
+     * @param hash the encoded hash, it must be compatible with this hasher
+     * @return true if the password matches
+     * @throws IllegalArgumentException if the encoded hash is malformed or incompatible
+     */
+    boolean verify(char @NotNull [] password, @NotNull String hash);
+
+}
@@ -0,0 +1,106 @@
+package com.laivyauth.bukkit.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The accounts eviction policy used when the database isn't buffered.
+ * <p>
+ * The pinned accounts (online players, and players that still are connecting) are always kept at
+ * memory, the other loaded accounts are kept at a bounded least recently used list, and are unloaded
+ * when the list exceeds the capacity. The pins are counted by unique id, so an account can be pinned
+ * before it's loaded, and it's only unpinned when all the pins are released.
+ * <p>
+ * This class doesn't remove the accounts itself, the accounts returned by {@link #loaded(AccountImpl)}
+ * and {@link #unpin(UUID, AccountImpl)} must be saved and removed from the accounts storage by the caller.
+ */
+final class AccountCache {
+
+    // Object
+
+    private final int capacity;
+
+    private final @NotNull Map<UUID, Integer> pinned = new ConcurrentHashMap<>();
+    private final @NotNull LinkedHashMap<UUID, AccountImpl> offline = new LinkedHashMap<>(16, 0.75f, true);
+
+    AccountCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    // Getters
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isPinned(@NotNull UUID uuid) {
+        return pinned.containsKey(uuid);
+    }
+
+    // Modules
+
+    /**
+     * Marks the account as recently used. Pinned accounts are ignored, since they
+     * are never evicted.
+     */
+    public void touch(@NotNull UUID uuid) {
+        if (pinned.containsKey(uuid)) return;
+
+        synchronized (offline) {
+            offline.get(uuid);
+        }
+    }
+
+    public @NotNull List<AccountImpl> loaded(@NotNull AccountImpl account) {
+        synchronized (offline) {
+            if (pinned.containsKey(account.getUniqueId())) {
+                return Collections.emptyList();
+            }
+
+            offline.put(account.getUniqueId(), account);
+            return trim();
+        }
+    }
+
+    public void pin(@NotNull UUID uuid) {
+        synchronized (offline) {
+            pinned.merge(uuid, 1, Integer::sum);
+            offline.remove(uuid);
+        }
+    }
+    public @NotNull List<AccountImpl> unpin(@NotNull UUID uuid, @Nullable AccountImpl account) {
+        synchronized (offline) {
+            // Releases a pin, the account is only evictable again when there's no pin left
+            if (pinned.computeIfPresent(uuid, (key, count) -> count > 1 ? count - 1 : null) != null) {
+                return Collections.emptyList();
+            } else if (account == null) {
+                return Collections.emptyList();
+            }
+
+            offline.put(uuid, account);
+            return trim();
+        }
+    }
+
+    // Utilities
+
+    private @NotNull List<AccountImpl> trim() {
+        if (offline.size() <= capacity) {
+            return Collections.emptyList();
+        }
+
+        @NotNull List<AccountImpl> evicted = new LinkedList<>();
+        @NotNull Iterator<AccountImpl> iterator = offline.values().iterator();
+
+        while (offline.size() > capacity && iterator.hasNext()) {
+            evicted.add(iterator.next());
+            iterator.remove();
+        }
+
+        return evicted;
+    }
+
+}
@@ -16,7 +16,10 @@ import org.bukkit.Bukkit;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.EOFException;
+import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
@@ -28,21 +31,35 @@ final class AccountImpl implements Account {
 
     // Static initializers
 
+    private static final @NotNull Type @NotNull [] TYPES = Type.values();
+
+    /**
+     * The value of the epoch-millis fields that doesn't have a value.
+     */
+    private static final long NONE = Long.MIN_VALUE;
+
+    // Object
+
+    // The fields are kept compact, since all the accounts stay at memory when the database is buffered:
+    // the type is stored by its ordinal, and the timestamps/durations as epoch millis primitives (the
+    // Instant and Duration objects are only created when requested). The name and unique id objects
+    // are shared with the keys of the accounts indexes, so they don't cost any extra memory.
+
     private transient final @NotNull LaivyAuthApiImpl api;
 
     private @NotNull String name;
     private final @NotNull UUID uuid;
     private final boolean isNew;
-    private @Nullable Type type;
+    private byte type;
 
     private char @Nullable [] password;
     private transient boolean authenticated = false;
 
-    private @Nullable Instant registration;
+    private long registration;
 
-    // Playing time
-    private transient @Nullable Instant lastPlayingTimeCheck;
-    private @NotNull Duration playingTime;
+    // Playing time, guarded by the account's monitor since it's read by the storages' threads
+    private transient long lastPlayingTimeCheck;
+    private long playingTime;
 
     // Constructor
 
@@ -51,12 +68,14 @@ final class AccountImpl implements Account {
         this.name = name;
         this.uuid = uuid;
         this.isNew = isNew;
-        this.type = type;
+        this.type = (byte) (type != null ? type.ordinal() : -1);
         this.password = password;
         this.authenticated = authenticated;
-        this.registration = registration;
-        this.lastPlayingTimeCheck = Bukkit.getPlayer(uuid) != null ? Instant.now() : null;
-        this.playingTime = playingTime;
+        this.registration = registration != null ? registration.toEpochMilli() : NONE;
+        this.lastPlayingTimeCheck = Bukkit.getPlayer(uuid) != null ? System.currentTimeMillis() : NONE;
+        this.playingTime = playingTime.toMillis();
+
+        if (authenticated) api.authenticated(this, true);
     }
 
     // Getters
@@ -67,7 +86,14 @@ final class AccountImpl implements Account {
     }
     @Override
     public void setName(@NotNull String name) {
+        if (this.name.equals(name)) return;
+
+        @NotNull String previous = this.name;
         this.name = name;
+
+        // Update the nickname index
+        api.rename(this, previous);
+        api.modified(this);
     }
 
     @Override
@@ -83,21 +109,55 @@ final class AccountImpl implements Account {
             return null;
         }
     }
+    /**
+     * Changes the account password. The plain password is hashed at the caller thread, the authentication
+     * commands hash it asynchronously and use {@link #setPassword(char[], String)} instead.
+     */
     @Override
     public void setPassword(char @Nullable [] password) {
-        if (Arrays.equals(this.password, password)) return;
-
         if (password != null) {
-            @NotNull PlayerPasswordChangeEvent event = new PlayerPasswordChangeEvent(this, password);
-            Bukkit.getPluginManager().callEvent(event);
-            if (event.isCancelled()) return;
+            setPassword(password, api.getPasswords().getHasher().hash(password));
         } else {
             @NotNull PlayerUnregisterEvent event = new PlayerUnregisterEvent(this);
             Bukkit.getPluginManager().callEvent(event);
+
+            this.registration = NONE;
+            this.password = null;
+
+            api.modified(this);
         }
+    }
 
-        this.registration = password != null ? Instant.now() : null;
-        this.password = password;
+    /**
+     * Changes the account password, using a hash that was already generated.
+     *
+     * @param password the plain password, only used by the password change event
+     * @param hash the encoded hash of the password
+     */
+    void setPassword(char @NotNull [] password, @NotNull String hash) {
+        @NotNull PlayerPasswordChangeEvent event = new PlayerPasswordChangeEvent(this, password);
+        Bukkit.getPluginManager().callEvent(event);
+        if (event.isCancelled()) return;
+
+        this.registration = System.currentTimeMillis();
+        this.password = hash.toCharArray();
+
+        api.modified(this);
+    }
+
+    /**
+     * Replaces the stored password by a new hash of the same password (an upgraded algorithm or cost),
+     * without calling the password change event. Nothing happens if the stored password has changed since
+     * the verification that generated the new hash.
+     *
+     * @param previous the stored password that was verified
+     * @param hash the new encoded hash
+     */
+    void rehash(char @NotNull [] previous, @NotNull String hash) {
+        if (!Arrays.equals(this.password, previous)) return;
+
+        this.password = hash.toCharArray();
+        api.modified(this);
     }
 
     @Override
@@ -105,32 +165,49 @@ final class AccountImpl implements Account {
         if (!api.getConfiguration().getPremiumAuthentication().isEnabled()) {
             throw new UnsupportedOperationException("the premium automatic authentication is disabled!");
         } else {
-            return type;
+            return getStoredType();
         }
     }
     @Override
     public void setType(@Nullable Type type) {
         if (!api.getConfiguration().getPremiumAuthentication().isEnabled()) {
             throw new UnsupportedOperationException("the premium automatic authentication is disabled!");
-        } else {
-            this.type = type;
+        } else if (getStoredType() != type) {
+            this.type = (byte) (type != null ? type.ordinal() : -1);
+            api.modified(this);
         }
     }
 
+    /**
+     * @return the account type, even if the premium automatic authentication is disabled. Used by the storages.
+     */
+    @Nullable Type getStoredType() {
+        return type >= 0 ? TYPES[type] : null;
+    }
+
     @Override
     public boolean isNew() {
         return isNew;
     }
 
     @Override
-    public @NotNull Duration getPlayingTime() {
+    public synchronized @NotNull Duration getPlayingTime() {
         ping();
-        return playingTime;
+        return Duration.ofMillis(playingTime);
+    }
+
+    /**
+     * @return the playing time including the current session, without updating it or marking the account
+     * as modified. Used by the storages, that could read it at any thread.
+     */
+    synchronized @NotNull Duration getStoredPlayingTime() {
+        long elapsed = lastPlayingTimeCheck != NONE ? System.currentTimeMillis() - lastPlayingTimeCheck : 0;
+        return Duration.ofMillis(playingTime + elapsed);
     }
 
     @Override
     public @Nullable Instant getRegistration() {
-        return registration;
+        return registration != NONE ? Instant.ofEpochMilli(registration) : null;
     }
 
     @Override
@@ -158,6 +235,7 @@ final class AccountImpl implements Account {
         }
 
         this.authenticated = authenticated;
+        api.authenticated(this, authenticated);
     }
 
     @Override
@@ -167,10 +245,15 @@ final class AccountImpl implements Account {
 
     // Modules
 
-    void ping() {
-        if (lastPlayingTimeCheck != null) {
-            playingTime = playingTime.plus(Duration.between(Instant.now(), lastPlayingTimeCheck));
-            lastPlayingTimeCheck = Instant.now();
+    synchronized void ping() {
+        if (lastPlayingTimeCheck != NONE) {
+            long now = System.currentTimeMillis();
+            long elapsed = now - lastPlayingTimeCheck;
+
+            playingTime += elapsed;
+            lastPlayingTimeCheck = now;
+
+            if (elapsed != 0) api.modified(this);
         }
     }
 
@@ -183,10 +266,12 @@ final class AccountImpl implements Account {
 
         context.setObject("name", account.getName());
         context.setObject("uuid", account.getUniqueId());
-        context.setObject("playing time", account.getPlayingTime());
+        context.setObject("playing time", account.getStoredPlayingTime());
+
+        @Nullable Type type = account.getStoredType();
 
-        if (account.getType() != null) {
-            context.setObject("type", account.getType());
+        if (type != null) {
+            context.setObject("type", type);
         } if (account.getPassword() != null) {
             context.setObject("password", account.getPassword());
         } if (account.getRegistration() != null) {
@@ -221,6 +306,43 @@ final class AccountImpl implements Account {
         return new AccountImpl((LaivyAuthApiImpl) LaivyAuth.getApi(), name, uuid, false, type, password, false, 1, registration, playingTime);
     }
 
+    /**
+     * Writes the account using the compact binary format of the {@link LogAccountStorage}.
+     * <p>
+     * The type is stored by its ordinal, so the {@link Type} constants must never be reordered.
+     */
+    static void write(@NotNull AccountImpl account, @NotNull DataOutput output) throws IOException {
+        output.writeLong(account.uuid.getMostSignificantBits());
+        output.writeLong(account.uuid.getLeastSignificantBits());
+        output.writeUTF(account.name);
+        output.writeByte(account.type);
+
+        char @Nullable [] password = account.password;
+        output.writeInt(password != null ? password.length : -1);
+        if (password != null) for (char character : password) output.writeChar(character);
+
+        output.writeBoolean(account.registration != NONE);
+        if (account.registration != NONE) output.writeLong(account.registration);
+
+        output.writeLong(account.getStoredPlayingTime().toMillis());
+    }
+    static @NotNull AccountImpl read(@NotNull LaivyAuthApiImpl api, @NotNull DataInput input) throws IOException {
+        @NotNull UUID uuid = new UUID(input.readLong(), input.readLong());
+        @NotNull String name = input.readUTF();
+
+        byte ordinal = input.readByte();
+        @Nullable Type type = ordinal >= 0 ? TYPES[ordinal] : null;
+
+        int length = input.readInt();
+        char @Nullable [] password = length >= 0 ? new char[length] : null;
+        if (password != null) for (int index = 0; index < length; index++) password[index] = input.readChar();
+
+        @Nullable Instant registration = input.readBoolean() ? Instant.ofEpochMilli(input.readLong()) : null;
+        @NotNull Duration playingTime = Duration.ofMillis(input.readLong());
+
+        return new AccountImpl(api, name, uuid, false, type, password, false, 1, registration, playingTime);
+    }
+
     // Implementations
 
     @Override
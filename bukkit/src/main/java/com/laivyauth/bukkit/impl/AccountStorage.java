@@ -0,0 +1,66 @@
+package com.laivyauth.bukkit.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * The persistence backend of the accounts, the api loads and saves all the accounts through it.
+ * <p>
+ * The api guarantees that {@link #open()} is called before any other method, and that no method
+ * is called after {@link #close()}. The implementations must be thread-safe, since the accounts
+ * are written by the flusher thread while they're being read by the main and netty threads.
+ */
+interface AccountStorage extends Closeable {
+
+    /**
+     * @return the storage name, used at the logs
+     */
+    @NotNull String getName();
+
+    // Accounts
+
+    /**
+     * Reads a single account from the storage.
+     *
+     * @param uuid the account unique id
+     * @return the stored account, or null if there's no account with this unique id
+     * @throws IOException if the account exists but cannot be read
+     */
+    @Nullable AccountImpl read(@NotNull UUID uuid) throws IOException;
+
+    /**
+     * Reads a single account from the storage, using its nickname. The nickname comparison follows
+     * the 'case-sensitive nicknames' configuration.
+     *
+     * @param nickname the account nickname
+     * @return the stored account, or null if there's no account with this nickname
+     * @throws IOException if the account exists but cannot be read
+     */
+    @Nullable AccountImpl read(@NotNull String nickname) throws IOException;
+
+    /**
+     * Reads all the stored accounts. The accounts that cannot be read are logged and skipped.
+     *
+     * @return all the accounts successfully read
+     * @throws IOException if the storage itself cannot be read
+     */
+    @NotNull Collection<AccountImpl> readAll() throws IOException;
+
+    /**
+     * Writes (inserts or replaces) the accounts at the storage.
+     *
+     * @param accounts the accounts to be written
+     * @throws IOException if one or more accounts couldn't be written
+     */
+    void write(@NotNull Collection<AccountImpl> accounts) throws IOException;
+
+    // Loaders
+
+    void open() throws IOException;
+
+}
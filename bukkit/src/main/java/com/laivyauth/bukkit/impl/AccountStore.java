@@ -0,0 +1,85 @@
+package com.laivyauth.bukkit.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The accounts storage of the api, it indexes the accounts by their unique ids (primary index) and
+ * by their nicknames, so both lookups doesn't need to iterate over all the registered accounts.
+ * <p>
+ * The nickname index is case-folded when the 'case-sensitive nicknames' configuration is enabled
+ * (nicknames that only differs in case are considered identical), and exact otherwise.
+ * <p>
+ * The lookups never block: both indexes are concurrent maps and can be read by any thread (netty, main
+ * thread, async chat...) at any time. The writes must be serialized by the api implementation's lock, so
+ * the "create if absent" operations stay atomic.
+ */
+final class AccountStore {
+
+    // Object
+
+    private final boolean caseFolded;
+
+    private final @NotNull Map<UUID, AccountImpl> accounts = new ConcurrentHashMap<>();
+    private final @NotNull Map<String, AccountImpl> names = new ConcurrentHashMap<>();
+
+    AccountStore(boolean caseFolded) {
+        this.caseFolded = caseFolded;
+    }
+
+    // Getters
+
+    public @Nullable AccountImpl get(@NotNull UUID uuid) {
+        return accounts.get(uuid);
+    }
+    public @Nullable AccountImpl get(@NotNull String nickname) {
+        return names.get(key(nickname));
+    }
+
+    public @NotNull Collection<AccountImpl> values() {
+        return Collections.unmodifiableCollection(accounts.values());
+    }
+    public int size() {
+        return accounts.size();
+    }
+
+    // Modules
+
+    public void put(@NotNull AccountImpl account) {
+        // The primary index is published first, a concurrent reader may find the account
+        // by the unique id slightly before finding it by the nickname, never the opposite.
+        @Nullable AccountImpl previous = accounts.put(account.getUniqueId(), account);
+        if (previous != null) names.remove(key(previous.getName()), previous);
+
+        names.put(key(account.getName()), account);
+    }
+    public void rename(@NotNull AccountImpl account, @NotNull String previous) {
+        if (accounts.get(account.getUniqueId()) != account) {
+            return;
+        }
+
+        names.remove(key(previous), account);
+        names.put(key(account.getName()), account);
+    }
+
+    public void remove(@NotNull AccountImpl account) {
+        if (accounts.remove(account.getUniqueId(), account)) {
+            names.remove(key(account.getName()), account);
+        }
+    }
+
+    public void clear() {
+        accounts.clear();
+        names.clear();
+    }
+
+    // Utilities
+
+    private @NotNull String key(@NotNull String nickname) {
+        return caseFolded ? nickname.toLowerCase(Locale.ROOT) : nickname;
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.laivyauth.bukkit.impl;
+
+import com.laivyauth.api.password.PasswordHasher;
+import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
+import org.bouncycastle.crypto.params.Argon2Parameters;
+import org.jetbrains.annotations.NotNull;
+
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * The Argon2id password hasher, backed by the Bouncy Castle's implementation.
+ * <p>
+ * Format: the PHC string format, {@code $argon2id$v=19$m=<memory kib>,t=<iterations>,p=<parallelism>$<salt>$<hash>}
+ */
+final class Argon2PasswordHasher implements PasswordHasher {
+
+    // Static initializers
+
+    private static final @NotNull String PREFIX = "$argon2id$";
+
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
+    // Object
+
+    private final int memory;
+    private final int iterations;
+    private final int parallelism;
+
+    private final @NotNull SecureRandom random = new SecureRandom();
+
+    /**
+     * Constructor for Argon2PasswordHasher.
+     *
+     * @param memory the memory cost, in kibibytes
+     * @param iterations the time cost
+     * @param parallelism the number of lanes
+     */
+    Argon2PasswordHasher(int memory, int iterations, int parallelism) {
+        this.memory = memory;
+        this.iterations = iterations;
+        this.parallelism = parallelism;
+    }
+
+    // Getters
+
+    @Override
+    public @NotNull String getAlgorithm() {
+        return "argon2id";
+    }
+
+    @Override
+    public boolean isCompatible(@NotNull String hash) {
+        return hash.startsWith(PREFIX);
+    }
+    @Override
+    public boolean isOutdated(@NotNull String hash) {
+        @NotNull Parameters parameters = parse(hash);
+        return parameters.memory < memory || parameters.iterations < iterations;
+    }
+
+    // Modules
+
+    @Override
+    public @NotNull String hash(char @NotNull [] password) {
+        byte @NotNull [] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+
+        @NotNull Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        byte @NotNull [] hash = derive(password, salt, memory, iterations, parallelism, HASH_LENGTH);
+
+        return PREFIX + "v=19$m=" + memory + ",t=" + iterations + ",p=" + parallelism + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+    @Override
+    public boolean verify(char @NotNull [] password, @NotNull String hash) {
+        @NotNull Parameters parameters = parse(hash);
+        return MessageDigest.isEqual(parameters.hash, derive(password, parameters.salt, parameters.memory, parameters.iterations, parameters.parallelism, parameters.hash.length));
+    }
+
+    // Utilities
+
+    private static byte @NotNull [] derive(char @NotNull [] password, byte @NotNull [] salt, int memory, int iterations, int parallelism, int length) {
+        @NotNull Argon2Parameters parameters = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
+                .withVersion(Argon2Parameters.ARGON2_VERSION_13)
+                .withMemoryAsKB(memory)
+                .withIterations(iterations)
+                .withParallelism(parallelism)
+                .withSalt(salt)
+                .build();
+
+        @NotNull Argon2BytesGenerator generator = new Argon2BytesGenerator();
+        generator.init(parameters);
+
+        byte @NotNull [] hash = new byte[length];
+        generator.generateBytes(password, hash);
+
+        return hash;
+    }
+
+    private static @NotNull Parameters parse(@NotNull String hash) {
+        // ["", "argon2id", "v=19", "m=<memory>,t=<iterations>,p=<parallelism>", "<salt>", "<hash>"]
+        @NotNull String[] parts = hash.split("\\$");
+
+        if (!hash.startsWith(PREFIX) || parts.length != 6 || !parts[2].equals("v=19")) {
+            throw new IllegalArgumentException("malformed argon2id hash");
+        }
+
+        try {
+            int memory = -1, iterations = -1, parallelism = -1;
+
+            for (@NotNull String parameter : parts[3].split(",")) {
+                int value = Integer.parseInt(parameter.substring(2));
+
+                if (parameter.startsWith("m=")) memory = value;
+                else if (parameter.startsWith("t=")) iterations = value;
+                else if (parameter.startsWith("p=")) parallelism = value;
+            }
+
+            if (memory < 1 || iterations < 1 || parallelism < 1) {
+                throw new IllegalArgumentException("missing argon2id parameters");
+            }
+
+            @NotNull Base64.Decoder decoder = Base64.getDecoder();
+            return new Parameters(memory, iterations, parallelism, decoder.decode(parts[4]), decoder.decode(parts[5]));
+        } catch (@NotNull IllegalArgumentException | @NotNull IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("malformed argon2id hash", e);
+        }
+    }
+
+    // Classes
+
+    private static final class Parameters {
+
+        private final int memory;
+        private final int iterations;
+        private final int parallelism;
+
+        private final byte @NotNull [] salt;
+        private final byte @NotNull [] hash;
+
+        private Parameters(int memory, int iterations, int parallelism, byte @NotNull [] salt, byte @NotNull [] hash) {
+            this.memory = memory;
+            this.iterations = iterations;
+            this.parallelism = parallelism;
+            this.salt = salt;
+            this.hash = hash;
+        }
+
+    }
+
+}
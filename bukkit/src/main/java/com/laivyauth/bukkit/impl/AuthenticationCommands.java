@@ -1,23 +1,41 @@
 package com.laivyauth.bukkit.impl;
 
 import com.laivyauth.api.LaivyAuthApi;
-import com.laivyauth.api.account.Account;
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
 
 public final class AuthenticationCommands implements CommandExecutor {
 
     // Static initializers
 
-    private final @NotNull LaivyAuthApi api;
+    private static final @NotNull Logger log = LoggerFactory.getLogger(AuthenticationCommands.class);
+
+    // Object
+
+    private final @NotNull LaivyAuthApiImpl api;
+
+    /**
+     * The players with a password being hashed or verified, it's only accessed by the main thread.
+     */
+    private final @NotNull Set<UUID> pending = new HashSet<>();
 
     public AuthenticationCommands(@NotNull LaivyAuthApi api) {
-        this.api = api;
+        if (!(api instanceof LaivyAuthApiImpl)) {
+            throw new IllegalArgumentException("the authentication commands requires the '" + LaivyAuthApiImpl.class.getName() + "' api");
+        }
+
+        this.api = (LaivyAuthApiImpl) api;
     }
 
     // Getters
@@ -32,7 +50,7 @@ public final class AuthenticationCommands implements CommandExecutor {
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String s, @NotNull String @NotNull [] args) {
         if (sender instanceof Player) {
             @NotNull Player player = (Player) sender;
-            @NotNull Account account = getApi().getOrCreate(player.getUniqueId(), player.getName());
+            @NotNull AccountImpl account = (AccountImpl) getApi().getOrCreate(player.getUniqueId(), player.getName());
 
             if (command.getName().equalsIgnoreCase("login")) {
                 if (args.length != 1) {
@@ -41,22 +59,20 @@ public final class AuthenticationCommands implements CommandExecutor {
                     player.sendMessage("§cAlready authenticated!");
                 } else if (!account.isRegistered()) {
                     player.sendMessage("§cNot Registered!");
-                } else if (!Arrays.equals(account.getPassword(), args[0].toCharArray())) {
-                    player.sendMessage("§cWrong password!");
+                } else if (!pending.add(player.getUniqueId())) {
+                    player.sendMessage("§cPlease wait, your password is being checked!");
                 } else {
-                    account.setAuthenticated(true);
-                    player.sendMessage("§aWelcome!");
+                    login(player, account, args[0].toCharArray());
                 }
             } else if (command.getName().equalsIgnoreCase("register")) {
                 if (args.length != 1) {
                     player.sendMessage("§cWrong number of arguments!");
                 } else if (account.isRegistered() || account.isAuthenticated()) {
                     player.sendMessage("§cAlready registered!");
+                } else if (!pending.add(player.getUniqueId())) {
+                    player.sendMessage("§cPlease wait, your password is being checked!");
                 } else {
-                    account.setPassword(args[0].toCharArray());
-                    account.setAuthenticated(true);
-
-                    player.sendMessage("§aWelcome!");
+                    register(player, account, args[0].toCharArray());
                 }
             }
         } else {
@@ -66,4 +82,61 @@ public final class AuthenticationCommands implements CommandExecutor {
         return true;
     }
 
+    // The password hashing is slow, so it's executed by the password hashers and the results are
+    // moved back to the main thread. The account could change while hashing, so it's checked again.
+
+    private void login(@NotNull Player player, @NotNull AccountImpl account, char @NotNull [] password) {
+        char @NotNull [] stored = account.getPassword();
+
+        api.getPasswords().verify(password, stored).whenComplete((verification, throwable) -> Bukkit.getScheduler().runTask(api.getPlugin(), () -> {
+            pending.remove(player.getUniqueId());
+            Arrays.fill(password, '\0');
+
+            if (!player.isOnline()) {
+                return;
+            } else if (throwable != null) {
+                player.sendMessage("§cCannot check your password right now, try again later!");
+
+                log.error("Cannot verify the password of '{}': {}", player.getName(), throwable.getMessage());
+                log.atDebug().setCause(throwable).log();
+            } else if (account.isAuthenticated()) {
+                player.sendMessage("§cAlready authenticated!");
+            } else if (!verification.matches()) {
+                player.sendMessage("§cWrong password!");
+            } else {
+                if (verification.getRehash() != null) {
+                    account.rehash(stored, verification.getRehash());
+                }
+
+                account.setAuthenticated(true);
+                player.sendMessage("§aWelcome!");
+            }
+        }));
+    }
+    private void register(@NotNull Player player, @NotNull AccountImpl account, char @NotNull [] password) {
+        api.getPasswords().hash(password).whenComplete((hash, throwable) -> Bukkit.getScheduler().runTask(api.getPlugin(), () -> {
+            pending.remove(player.getUniqueId());
+
+            try {
+                if (!player.isOnline()) {
+                    return;
+                } else if (throwable != null) {
+                    player.sendMessage("§cCannot register your password right now, try again later!");
+
+                    log.error("Cannot hash the password of '{}': {}", player.getName(), throwable.getMessage());
+                    log.atDebug().setCause(throwable).log();
+                } else if (account.isRegistered() || account.isAuthenticated()) {
+                    player.sendMessage("§cAlready registered!");
+                } else {
+                    account.setPassword(password, hash);
+                    account.setAuthenticated(true);
+
+                    player.sendMessage("§aWelcome!");
+                }
+            } finally {
+                Arrays.fill(password, '\0');
+            }
+        }));
+    }
+
 }
@@ -0,0 +1,64 @@
+package com.laivyauth.bukkit.impl;
+
+import com.laivyauth.api.password.PasswordHasher;
+import org.bouncycastle.crypto.generators.OpenBSDBCrypt;
+import org.jetbrains.annotations.NotNull;
+
+import java.security.SecureRandom;
+
+/**
+ * The bcrypt password hasher, backed by the Bouncy Castle's implementation.
+ * <p>
+ * Format: the standard modular crypt format, {@code $2y$<cost>$<salt and hash>}. Only the first
+ * 72 bytes of the password are considered by the bcrypt algorithm.
+ */
+final class BCryptPasswordHasher implements PasswordHasher {
+
+    // Static initializers
+
+    private static final int SALT_LENGTH = 16;
+
+    // Object
+
+    private final int cost;
+    private final @NotNull SecureRandom random = new SecureRandom();
+
+    BCryptPasswordHasher(int cost) {
+        this.cost = cost;
+    }
+
+    // Getters
+
+    @Override
+    public @NotNull String getAlgorithm() {
+        return "bcrypt";
+    }
+
+    @Override
+    public boolean isCompatible(@NotNull String hash) {
+        return hash.startsWith("$2a$") || hash.startsWith("$2b$") || hash.startsWith("$2y$");
+    }
+    @Override
+    public boolean isOutdated(@NotNull String hash) {
+        try {
+            return Integer.parseInt(hash.substring(4, 6)) < cost;
+        } catch (@NotNull NumberFormatException | @NotNull IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("malformed bcrypt hash", e);
+        }
+    }
+
+    // Modules
+
+    @Override
+    public @NotNull String hash(char @NotNull [] password) {
+        byte @NotNull [] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+
+        return OpenBSDBCrypt.generate(password, salt, cost);
+    }
+    @Override
+    public boolean verify(char @NotNull [] password, @NotNull String hash) {
+        return OpenBSDBCrypt.checkPassword(hash, password);
+    }
+
+}
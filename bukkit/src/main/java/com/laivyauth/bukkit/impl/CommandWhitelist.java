@@ -0,0 +1,89 @@
+package com.laivyauth.bukkit.impl;
+
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * The commands the unauthenticated players are allowed to use: the authentication commands with their
+ * aliases, both plain and namespaced (as {@code laivyauth:login}), and the configured ones. The other
+ * commands of the plugin are never allowed, even if they're declared at the plugin.yml.
+ * <p>
+ * The commands are computed once, and the executed commands are matched by scanning the message
+ * in place, ignoring the case like the server does, so no string is allocated per command.
+ */
+final class CommandWhitelist {
+
+    // Static initializers
+
+    private static final @NotNull String @NotNull [] AUTHENTICATION = new String[] { "login", "register" };
+
+    // Object
+
+    private final @NotNull String @NotNull [] commands;
+
+    CommandWhitelist(@NotNull PluginDescriptionFile description, @NotNull String @NotNull [] allowed) {
+        @NotNull Set<String> commands = new LinkedHashSet<>();
+        @NotNull String namespace = description.getName().toLowerCase(Locale.ROOT) + ":";
+
+        for (@NotNull String command : AUTHENTICATION) {
+            @NotNull List<String> labels = new ArrayList<>();
+            labels.add(command);
+
+            // The aliases are declared at the plugin.yml, and could be a single string or a list
+            @Nullable Map<String, Object> declaration = description.getCommands().get(command);
+            @Nullable Object aliases = declaration != null ? declaration.get("aliases") : null;
+
+            if (aliases instanceof Collection) {
+                for (@Nullable Object alias : (Collection<?>) aliases) {
+                    if (alias != null) labels.add(alias.toString());
+                }
+            } else if (aliases != null) {
+                labels.add(aliases.toString());
+            }
+
+            for (@NotNull String label : labels) {
+                commands.add(label.toLowerCase(Locale.ROOT));
+                commands.add(namespace + label.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        for (@NotNull String command : allowed) {
+            command = command.trim().toLowerCase(Locale.ROOT);
+            if (command.startsWith("/")) command = command.substring(1);
+
+            if (!command.isEmpty()) {
+                commands.add(command);
+            }
+        }
+
+        this.commands = commands.toArray(new String[0]);
+    }
+
+    // Getters
+
+    /**
+     * Checks if the command of the message is allowed, without allocating anything.
+     *
+     * @param message the command message, as received by the {@code PlayerCommandPreprocessEvent}
+     * @return true if the command is allowed for the unauthenticated players.
+     */
+    public boolean isAllowed(@NotNull String message) {
+        int start = message.startsWith("/") ? 1 : 0;
+        int end = message.indexOf(' ', start);
+        if (end == -1) end = message.length();
+
+        int length = end - start;
+
+        for (@NotNull String command : commands) {
+            if (command.length() == length && message.regionMatches(true, start, command, 0, length)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
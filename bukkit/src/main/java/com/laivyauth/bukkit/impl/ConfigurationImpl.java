@@ -17,13 +17,16 @@ final class ConfigurationImpl implements Configuration {
     private final boolean stopServerIfFails;
     private final boolean bufferedDatabase;
 
+    private final @NotNull Database database;
     private final @NotNull Metrics metrics;
     private final @NotNull Accounts accounts;
+    private final @NotNull Passwords passwords;
     private final @NotNull WeakPasswords weakPasswords;
     private final @NotNull Unauthenticated unauthenticated;
     private final @NotNull Updates updates;
     private final @NotNull PremiumAuthentication premiumAuthentication;
     private final @NotNull Authentication authentication;
+    private final @NotNull Admission admission;
     private final @NotNull Whitelist whitelist;
     private final @NotNull Captchas captchas;
     private final @NotNull TwoFactorAccess twoFactorAccess;
@@ -41,13 +44,16 @@ final class ConfigurationImpl implements Configuration {
         this.stopServerIfFails = yaml.getBoolean("stop server if fails", true);
         this.bufferedDatabase = yaml.getBoolean("buffered database", true);
 
+        this.database = new DatabaseImpl(yaml.getInt("database.cache size", 1000), Duration.ofSeconds(yaml.getInt("database.flush interval", 30)), yaml.getString("database.storage", "json"), new DatabaseImpl.SqlImpl(yaml.getString("database.sql.url", ""), yaml.getString("database.sql.username", ""), yaml.getString("database.sql.password", ""), yaml.getString("database.sql.table", "laivyauth_accounts"), yaml.getInt("database.sql.pool size", 4)));
         this.metrics = new MetricsImpl(yaml.getBoolean("metrics.public visibility"));
         this.accounts = new AccountsImpl(yaml.getInt("maximum registered accounts per ip", 3), yaml.getInt("maximum authenticated accounts per ip", 3));
+        this.passwords = new PasswordsImpl(yaml.getString("passwords.algorithm", "argon2id"), yaml.getInt("passwords.hashing threads", 2));
         this.weakPasswords = new WeakPasswordsImpl(yaml.getBoolean("weak passwords.enabled"), strings, (float) yaml.getDouble("weak passwords.similarity to block"));
-        this.unauthenticated = new UnauthenticatedImpl(Duration.ofSeconds(yaml.getInt("unauthenticated.timeout")), new UnauthenticatedImpl.MovementImpl(yaml.getInt("unauthenticated.movement.radius"), yaml.getBoolean("unauthenticated.movement.allow jumps")), new UnauthenticatedImpl.VisibilityImpl(yaml.getBoolean("unauthenticated.visilibity.blindness effect"), yaml.getBoolean("unauthenticated.visilibity.invisibility effect"), yaml.getBoolean("unauthenticated.visilibity.identity")));
+        this.unauthenticated = new UnauthenticatedImpl(Duration.ofSeconds(yaml.getInt("unauthenticated.timeout")), new UnauthenticatedImpl.MovementImpl(yaml.getInt("unauthenticated.movement.radius"), yaml.getBoolean("unauthenticated.movement.allow jumps")), new UnauthenticatedImpl.VisibilityImpl(yaml.getBoolean("unauthenticated.visilibity.blindness effect"), yaml.getBoolean("unauthenticated.visilibity.invisibility effect"), yaml.getBoolean("unauthenticated.visilibity.identity")), yaml.getStringList("unauthenticated.allowed commands").toArray(new String[0]));
         this.updates = new UpdatesImpl(Duration.ofMinutes(yaml.getInt("updates.check")), yaml.getBoolean("updates.automatic for plugin"), yaml.getBoolean("updates.automatic for mappings"));
-        this.premiumAuthentication = new PremiumAuthenticationImpl(yaml.getBoolean("premium automatic auth.enabled"), Duration.ofSeconds(yaml.getInt("premium automatic auth.reconnect timeout")));
-        this.authentication = new AuthenticationImpl(Duration.ofSeconds(yaml.getInt("authentication.timeout")), yaml.getBoolean("authentication.required for premium players"));
+        this.premiumAuthentication = new PremiumAuthenticationImpl(yaml.getBoolean("premium automatic auth.enabled"), Duration.ofSeconds(yaml.getInt("premium automatic auth.reconnect timeout")), yaml.getInt("premium automatic auth.verification threads", 4), Duration.ofSeconds(yaml.getInt("premium automatic auth.verification timeout", 10)));
+        this.authentication = new AuthenticationImpl(Duration.ofSeconds(yaml.getInt("authentication.timeout")), yaml.getBoolean("authentication.required for premium players"), yaml.getInt("authentication.login threads", 16));
+        this.admission = new AdmissionImpl(yaml.getBoolean("admission.enabled", false), new AdmissionImpl.LimitImpl("admission.per address", yaml.getDouble("admission.per address.rate", 1), yaml.getInt("admission.per address.burst", 8)), new AdmissionImpl.LimitImpl("admission.per subnet", yaml.getDouble("admission.per subnet.rate", 4), yaml.getInt("admission.per subnet.burst", 32)), new AdmissionImpl.LimitImpl("admission.global", yaml.getDouble("admission.global.rate", 50), yaml.getInt("admission.global.burst", 200)));
         this.whitelist = new WhitelistImpl(yaml.getBoolean("whitelist.allow cracked users"), ArrayUtils.toPrimitive(yaml.getIntegerList("whitelist.block protocol versions").toArray(new Integer[0])));
         this.captchas = new CaptchasImpl(yaml.getBoolean("captchas.enabled"), yaml.getStringList("captchas.restricted for groups").toArray(new String[0]), yaml.getStringList("captchas.challenges").toArray(new String[0]));
         this.twoFactorAccess = new TwoFactorAccessImpl(yaml.getBoolean("two factor access.enabled"), yaml.getStringList("two factor access.methods").toArray(new String[0]), yaml.getStringList("two factor access.required for groups").toArray(new String[0]));
@@ -75,6 +81,10 @@ final class ConfigurationImpl implements Configuration {
         return bufferedDatabase;
     }
 
+    @Override
+    public @NotNull Database getDatabase() {
+        return database;
+    }
     @Override
     public @NotNull Metrics getMetrics() {
         return metrics;
@@ -84,6 +94,10 @@ final class ConfigurationImpl implements Configuration {
         return accounts;
     }
     @Override
+    public @NotNull Passwords getPasswords() {
+        return passwords;
+    }
+    @Override
     public @NotNull WeakPasswords getWeakPasswords() {
         return weakPasswords;
     }
@@ -104,6 +118,10 @@ final class ConfigurationImpl implements Configuration {
         return authentication;
     }
     @Override
+    public @NotNull Admission getAdmission() {
+        return admission;
+    }
+    @Override
     public @NotNull Whitelist getWhitelist() {
         return whitelist;
     }
@@ -130,6 +148,104 @@ final class ConfigurationImpl implements Configuration {
 
     // Classes
 
+    private static final class DatabaseImpl implements Database {
+
+        private final int cacheSize;
+        private final @NotNull Duration flushInterval;
+        private final @NotNull Storage storage;
+        private final @NotNull Sql sql;
+
+        public DatabaseImpl(int cacheSize, @NotNull Duration flushInterval, @NotNull String storage, @NotNull Sql sql) {
+            this.cacheSize = cacheSize;
+            this.flushInterval = flushInterval;
+            this.sql = sql;
+
+            try {
+                this.storage = Storage.valueOf(storage.toUpperCase(Locale.ROOT));
+            } catch (@NotNull IllegalArgumentException e) {
+                throw new IllegalStateException("the 'database.storage' configuration must be one of " + Arrays.toString(Storage.values()).toLowerCase(Locale.ROOT));
+            }
+
+            if (cacheSize < 0) {
+                throw new IllegalStateException("the 'database.cache size' configuration cannot be negative");
+            } else if (flushInterval.getSeconds() < 1 || flushInterval.getSeconds() > 3600) {
+                throw new IllegalStateException("the 'database.flush interval' configuration must be between 1 and 3600 seconds");
+            } else if (this.storage == Storage.SQL && sql.getUrl().isEmpty()) {
+                throw new IllegalStateException("the 'database.sql.url' configuration is required when the storage is 'sql'");
+            }
+        }
+
+        // Getters
+
+        @Override
+        public int getCacheSize() {
+            return cacheSize;
+        }
+        @Override
+        public @NotNull Duration getFlushInterval() {
+            return flushInterval;
+        }
+        @Override
+        public @NotNull Storage getStorage() {
+            return storage;
+        }
+        @Override
+        public @NotNull Sql getSql() {
+            return sql;
+        }
+
+        // Classes
+
+        private static final class SqlImpl implements Sql {
+
+            private final @NotNull String url;
+            private final @NotNull String username;
+            private final @NotNull String password;
+
+            private final @NotNull String table;
+            private final int poolSize;
+
+            public SqlImpl(@NotNull String url, @NotNull String username, @NotNull String password, @NotNull String table, int poolSize) {
+                this.url = url;
+                this.username = username;
+                this.password = password;
+                this.table = table;
+                this.poolSize = poolSize;
+
+                if (!table.matches("[A-Za-z0-9_]{1,64}")) {
+                    throw new IllegalStateException("the 'database.sql.table' configuration must only contain letters, digits and underscores");
+                } else if (poolSize < 1 || poolSize > 64) {
+                    throw new IllegalStateException("the 'database.sql.pool size' configuration must be between 1 and 64");
+                }
+            }
+
+            // Getters
+
+            @Override
+            public @NotNull String getUrl() {
+                return url;
+            }
+            @Override
+            public @NotNull String getUsername() {
+                return username;
+            }
+            @Override
+            public @NotNull String getPassword() {
+                return password;
+            }
+
+            @Override
+            public @NotNull String getTable() {
+                return table;
+            }
+            @Override
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+        }
+
+    }
     private static final class MetricsImpl implements Metrics {
 
         private final boolean publicVisibility;
@@ -167,6 +283,37 @@ final class ConfigurationImpl implements Configuration {
             return maximumAuthenticatedPerIp;
         }
 
+    }
+    private static final class PasswordsImpl implements Passwords {
+
+        private final @NotNull Algorithm algorithm;
+        private final int hashingThreads;
+
+        public PasswordsImpl(@NotNull String algorithm, int hashingThreads) {
+            this.hashingThreads = hashingThreads;
+
+            try {
+                this.algorithm = Algorithm.valueOf(algorithm.toUpperCase(Locale.ROOT));
+            } catch (@NotNull IllegalArgumentException e) {
+                throw new IllegalStateException("the 'passwords.algorithm' configuration must be one of " + Arrays.toString(Algorithm.values()).toLowerCase(Locale.ROOT));
+            }
+
+            if (hashingThreads < 1 || hashingThreads > 64) {
+                throw new IllegalStateException("the 'passwords.hashing threads' configuration must be between 1 and 64");
+            }
+        }
+
+        // Getters
+
+        @Override
+        public @NotNull Algorithm getAlgorithm() {
+            return algorithm;
+        }
+        @Override
+        public int getHashingThreads() {
+            return hashingThreads;
+        }
+
     }
     private static final class WeakPasswordsImpl implements WeakPasswords {
 
@@ -206,11 +353,13 @@ final class ConfigurationImpl implements Configuration {
         private final @NotNull Duration timeout;
         private final @NotNull Movement movement;
         private final @NotNull Visibility visibility;
+        private final @NotNull String @NotNull [] allowedCommands;
 
-        public UnauthenticatedImpl(@NotNull Duration timeout, @NotNull Movement movement, @NotNull Visibility visibility) {
+        public UnauthenticatedImpl(@NotNull Duration timeout, @NotNull Movement movement, @NotNull Visibility visibility, @NotNull String @NotNull [] allowedCommands) {
             this.timeout = timeout;
             this.movement = movement;
             this.visibility = visibility;
+            this.allowedCommands = allowedCommands;
         }
 
         // Getters
@@ -228,6 +377,11 @@ final class ConfigurationImpl implements Configuration {
             return visibility;
         }
 
+        @Override
+        public @NotNull String @NotNull [] getAllowedCommands() {
+            return allowedCommands;
+        }
+
         // Classes
 
         private static final class MovementImpl implements Movement {
@@ -315,12 +469,21 @@ final class ConfigurationImpl implements Configuration {
         private final boolean enabled;
         private final @NotNull Duration reconnectTimeout;
 
-        public PremiumAuthenticationImpl(boolean enabled, @NotNull Duration reconnectTimeout) {
+        private final int verificationThreads;
+        private final @NotNull Duration verificationTimeout;
+
+        public PremiumAuthenticationImpl(boolean enabled, @NotNull Duration reconnectTimeout, int verificationThreads, @NotNull Duration verificationTimeout) {
             this.enabled = enabled;
             this.reconnectTimeout = reconnectTimeout;
+            this.verificationThreads = verificationThreads;
+            this.verificationTimeout = verificationTimeout;
 
             if (reconnectTimeout.getSeconds() > 300 || reconnectTimeout.getSeconds() < 15) {
                 throw new IllegalStateException("the 'reconnect timeout' configuration must be between 15 and 300 seconds");
+            } else if (verificationThreads < 1 || verificationThreads > 64) {
+                throw new IllegalStateException("the 'verification threads' configuration must be between 1 and 64");
+            } else if (verificationTimeout.getSeconds() > 25 || verificationTimeout.getSeconds() < 1) {
+                throw new IllegalStateException("the 'verification timeout' configuration must be between 1 and 25 seconds");
             }
         }
 
@@ -335,15 +498,30 @@ final class ConfigurationImpl implements Configuration {
             return reconnectTimeout;
         }
 
+        @Override
+        public int getVerificationThreads() {
+            return verificationThreads;
+        }
+        @Override
+        public @NotNull Duration getVerificationTimeout() {
+            return verificationTimeout;
+        }
+
     }
     private static final class AuthenticationImpl implements Authentication {
 
         private final @NotNull Duration timeout;
         private final boolean requiredForPremiumPlayers;
+        private final int loginThreads;
 
-        public AuthenticationImpl(@NotNull Duration timeout, boolean requiredForPremiumPlayers) {
+        public AuthenticationImpl(@NotNull Duration timeout, boolean requiredForPremiumPlayers, int loginThreads) {
             this.timeout = timeout;
             this.requiredForPremiumPlayers = requiredForPremiumPlayers;
+            this.loginThreads = loginThreads;
+
+            if (loginThreads < 1 || loginThreads > 256) {
+                throw new IllegalStateException("the 'authentication.login threads' configuration must be between 1 and 256");
+            }
         }
 
         // Getters
@@ -357,6 +535,78 @@ final class ConfigurationImpl implements Configuration {
             return requiredForPremiumPlayers;
         }
 
+        @Override
+        public int getLoginThreads() {
+            return loginThreads;
+        }
+
+    }
+    private static final class AdmissionImpl implements Admission {
+
+        private final boolean enabled;
+
+        private final @NotNull Limit address;
+        private final @NotNull Limit subnet;
+        private final @NotNull Limit global;
+
+        public AdmissionImpl(boolean enabled, @NotNull Limit address, @NotNull Limit subnet, @NotNull Limit global) {
+            this.enabled = enabled;
+            this.address = address;
+            this.subnet = subnet;
+            this.global = global;
+        }
+
+        // Getters
+
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public @NotNull Limit getAddress() {
+            return address;
+        }
+        @Override
+        public @NotNull Limit getSubnet() {
+            return subnet;
+        }
+        @Override
+        public @NotNull Limit getGlobal() {
+            return global;
+        }
+
+        // Classes
+
+        private static final class LimitImpl implements Limit {
+
+            private final double rate;
+            private final int burst;
+
+            public LimitImpl(@NotNull String path, double rate, int burst) {
+                this.rate = rate;
+                this.burst = burst;
+
+                if (rate < 0 || Double.isNaN(rate)) {
+                    throw new IllegalStateException("the '" + path + ".rate' configuration cannot be negative");
+                } else if (burst < 1) {
+                    throw new IllegalStateException("the '" + path + ".burst' configuration must be at least 1");
+                }
+            }
+
+            // Getters
+
+            @Override
+            public double getRate() {
+                return rate;
+            }
+            @Override
+            public int getBurst() {
+                return burst;
+            }
+
+        }
+
     }
     private static final class WhitelistImpl implements Whitelist {
 
@@ -0,0 +1,261 @@
+package com.laivyauth.bukkit.impl;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityTargetLivingEntityEvent;
+import org.bukkit.event.entity.FoodLevelChangeEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.laivyauth.bukkit.impl.SpigotListener.isLogged;
+
+/**
+ * The listener that blocks the unauthenticated players' actions.
+ * <p>
+ * It's only registered while there's at least one unauthenticated player online, so the server
+ * doesn't dispatch the hot events (interact, damage, entity target, inventory...) to it when all
+ * the online players are authenticated, which is the normal state most of the time. The registration
+ * is updated when a player joins, quits or has the authentication changed, always at the main thread.
+ */
+final class GateListener implements Listener {
+
+    // Object
+
+    private final @NotNull LaivyAuthApiImpl api;
+    private final @NotNull CommandWhitelist commands;
+
+    private final @NotNull AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    // Only modified at the main thread
+    private volatile boolean registered = false;
+
+    GateListener(@NotNull LaivyAuthApiImpl api) {
+        this.api = api;
+        this.commands = new CommandWhitelist(api.getPlugin().getDescription(), api.getConfiguration().getUnauthenticated().getAllowedCommands());
+    }
+
+    // Getters
+
+    /**
+     * @return true if the listener is registered, there's unauthenticated players online.
+     */
+    public boolean isRegistered() {
+        return registered;
+    }
+
+    // Modules
+
+    /**
+     * Registers or unregisters the listener, according to the online players. If it's not called at the
+     * main thread, the update is scheduled to the next tick.
+     */
+    public void update() {
+        if (Bukkit.isPrimaryThread()) {
+            refresh();
+        } else {
+            schedule();
+        }
+    }
+
+    /**
+     * Schedules the update to the next tick, used when a player is quitting and still is online.
+     */
+    public void schedule() {
+        if (api.getPlugin().isEnabled() && scheduled.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTask(api.getPlugin(), () -> {
+                scheduled.set(false);
+                refresh();
+            });
+        }
+    }
+
+    private void refresh() {
+        if (!api.getPlugin().isEnabled()) {
+            return;
+        }
+
+        boolean required = false;
+
+        for (@NotNull Player player : Bukkit.getOnlinePlayers()) {
+            if (!api.isAuthenticated(player.getUniqueId())) {
+                required = true;
+                break;
+            }
+        }
+
+        if (required && !registered) {
+            Bukkit.getPluginManager().registerEvents(this, api.getPlugin());
+            registered = true;
+        } else if (!required && registered) {
+            HandlerList.unregisterAll(this);
+            registered = false;
+        }
+    }
+
+    // Listeners
+
+    @EventHandler
+    private void target(@NotNull EntityTargetLivingEntityEvent e) {
+        if (e.getTarget() instanceof Player) {
+            @NotNull Player player = (Player) e.getTarget();
+
+            if (!isLogged(player)) {
+                e.setCancelled(true);
+            }
+        }
+    }
+    @EventHandler
+    private void tabComplete(@NotNull PlayerChatTabCompleteEvent e) {
+        if (!isLogged(e.getPlayer())) {
+            e.getTabCompletions().clear();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void chat(@NotNull AsyncPlayerChatEvent e) {
+        if (!isLogged(e.getPlayer())) {
+            e.getPlayer().sendMessage("§cYou must be authenticated to use chat!");
+            e.setCancelled(true);
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void preProcess(@NotNull PlayerCommandPreprocessEvent e) {
+        if (isLogged(e.getPlayer())) {
+            return;
+        }
+
+        if (!commands.isAllowed(e.getMessage())) {
+            e.getPlayer().sendMessage("§cYou must be authenticated to perform that command.");
+            e.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void damaged(@NotNull EntityDamageEvent e) {
+        if (e.getEntity() instanceof Player) {
+            if (!isLogged((Player) e.getEntity())) {
+                e.setCancelled(true);
+            }
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void damageOthers(@NotNull EntityDamageByEntityEvent e) {
+        if (e.getDamager() instanceof Player) {
+            if (!isLogged((Player) e.getDamager())) {
+                e.setCancelled(true);
+            }
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void bedEnter(@NotNull PlayerBedEnterEvent e) {
+        if (!isLogged(e.getPlayer())) {
+            e.getPlayer().sendMessage("§cYou must be authenticated to do this!");
+            e.setCancelled(true);
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void interact(@NotNull PlayerInteractEvent e) {
+        if (!isLogged(e.getPlayer())) {
+            e.setCancelled(true);
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void bucket(@NotNull PlayerBucketEmptyEvent e) {
+        if (!isLogged(e.getPlayer())) {
+            e.getPlayer().sendMessage("§cYou must be authenticated to do this!");
+            e.setCancelled(true);
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void bucket(@NotNull PlayerBucketFillEvent e) {
+        if (!isLogged(e.getPlayer())) {
+            e.getPlayer().sendMessage("§cYou must be authenticated to do this!");
+            e.setCancelled(true);
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void dropItem(@NotNull PlayerDropItemEvent e) {
+        if (!isLogged(e.getPlayer())) {
+            e.getPlayer().sendMessage("§cYou must be authenticated to do this!");
+            e.setCancelled(true);
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void swapHands(@NotNull PlayerSwapHandItemsEvent e) {
+        if (!isLogged(e.getPlayer())) {
+            e.setCancelled(true);
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void interactEntity(@NotNull PlayerInteractEntityEvent e) {
+        if (!isLogged(e.getPlayer())) {
+            e.getPlayer().sendMessage("§cYou must be authenticated to do this!");
+            e.setCancelled(true);
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void open(@NotNull InventoryOpenEvent e) {
+        if (e.getPlayer() instanceof Player) {
+            @NotNull Player player = (Player) e.getPlayer();
+
+            if (!isLogged(player)) {
+                player.sendMessage("§cYou must be authenticated to do this!");
+                e.setCancelled(true);
+            }
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void click(@NotNull InventoryClickEvent e) {
+        if (e.getWhoClicked() instanceof Player) {
+            @NotNull Player player = (Player) e.getWhoClicked();
+
+            if (!isLogged(player)) {
+                player.sendMessage("§cYou must be authenticated to do this!");
+                e.setCancelled(true);
+            }
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void pickupItem(@NotNull PlayerPickupItemEvent e) {
+        if (!isLogged(e.getPlayer())) {
+            e.setCancelled(true);
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void blockPlace(@NotNull BlockPlaceEvent e) {
+        if (!isLogged(e.getPlayer())) {
+            e.getPlayer().sendMessage("§cYou must be authenticated to do this!");
+            e.setCancelled(true);
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void blockBreak(@NotNull BlockBreakEvent e) {
+        if (!isLogged(e.getPlayer())) {
+            e.getPlayer().sendMessage("§cYou must be authenticated to do this!");
+            e.setCancelled(true);
+        }
+    }
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    private void foodChange(@NotNull FoodLevelChangeEvent e) {
+        if (e.getEntity() instanceof Player) {
+            @NotNull Player player = (Player) e.getEntity();
+
+            if (!isLogged(player)) {
+                e.setCancelled(true);
+            }
+        }
+    }
+
+}
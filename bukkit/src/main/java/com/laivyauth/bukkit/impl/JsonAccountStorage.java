@@ -0,0 +1,323 @@
+package com.laivyauth.bukkit.impl;
+
+import codes.laivy.serializable.Serializer;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * The accounts database folder, each account is stored at its own '{@code <uuid>.json}' file.
+ * <p>
+ * When the database isn't buffered, the accounts files are only read on demand, and the nicknames
+ * lookups are resolved by the nicknames index: the '{@code names.index}' file, where each line maps a
+ * nickname to an account unique id. The index is append-only while the server is running (renames
+ * and creations are appended at the end, the latest line wins) and it's compacted when the storage
+ * closes. If the index doesn't exist or it's older than any account file (e.g. the accounts were
+ * written while the index was disabled, or the server crashed before indexing them), it's rebuilt
+ * from the accounts files. The index is deleted while it's disabled, since it isn't maintained.
+ */
+final class JsonAccountStorage implements AccountStorage {
+
+    // Static initializers
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(JsonAccountStorage.class);
+    private static final @NotNull Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    /**
+     * The minimum amount of accounts files to display the loading progress.
+     */
+    private static final int PROGRESS_THRESHOLD = 10_000;
+
+    // Object
+
+    private final @NotNull File folder;
+    private final boolean caseFolded;
+    private final boolean indexed;
+
+    private final @NotNull Map<String, UUID> names = new ConcurrentHashMap<>();
+    private @Nullable Writer index;
+
+    /**
+     * Constructor for JsonAccountStorage.
+     *
+     * @param folder the accounts folder
+     * @param caseFolded true if nicknames that only differs in case are identical
+     * @param indexed true to maintain the nicknames index, required for the {@link #read(String)} method
+     */
+    JsonAccountStorage(@NotNull File folder, boolean caseFolded, boolean indexed) {
+        this.folder = folder;
+        this.caseFolded = caseFolded;
+        this.indexed = indexed;
+    }
+
+    // Getters
+
+    @Override
+    public @NotNull String getName() {
+        return "json";
+    }
+
+    public @NotNull File getFolder() {
+        return folder;
+    }
+    public @NotNull File getFile(@NotNull UUID uuid) {
+        return new File(getFolder(), uuid + ".json");
+    }
+
+    public @NotNull File @NotNull [] getFiles() {
+        @NotNull File @Nullable [] files = getFolder().listFiles((directory, name) -> name.endsWith(".json"));
+        return files != null ? files : new File[0];
+    }
+
+    // Accounts
+
+    @Override
+    public @Nullable AccountImpl read(@NotNull UUID uuid) throws IOException {
+        @NotNull File file = getFile(uuid);
+        return file.exists() ? read(file) : null;
+    }
+    @Override
+    public @Nullable AccountImpl read(@NotNull String nickname) throws IOException {
+        if (!indexed) {
+            throw new UnsupportedOperationException("the nicknames index is disabled");
+        }
+
+        @NotNull String key = key(nickname);
+        @Nullable UUID uuid = names.get(key);
+        if (uuid == null) return null;
+
+        // The index entry could be outdated if the account has changed its nickname
+        @Nullable AccountImpl account = read(uuid);
+
+        if (account == null || !key(account.getName()).equals(key)) {
+            names.remove(key, uuid);
+            return null;
+        }
+
+        return account;
+    }
+    public @NotNull AccountImpl read(@NotNull File file) throws IOException {
+        try (@NotNull Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            @NotNull JsonElement element = JsonParser.parseReader(reader);
+            return Objects.requireNonNull(Serializer.fromJson(AccountImpl.class, element));
+        }
+    }
+
+    /**
+     * Reads all the accounts files of the database in parallel, using a dedicated fork-join pool with
+     * one thread per available processor. The files that cannot be read are logged and skipped.
+     *
+     * @return all the accounts successfully read
+     */
+    @Override
+    public @NotNull List<AccountImpl> readAll() {
+        @NotNull File @NotNull [] files = getFiles();
+        @NotNull AtomicInteger progress = new AtomicInteger(0);
+        int step = Math.max(files.length / 10, 1);
+
+        @NotNull ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), (forkJoinPool) -> {
+            @NotNull ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("Accounts Loader #" + thread.getPoolIndex());
+            thread.setContextClassLoader(JsonAccountStorage.class.getClassLoader());
+
+            return thread;
+        }, null, false);
+
+        try {
+            return pool.submit(() -> Arrays.stream(files).parallel().map((file) -> {
+                try {
+                    return read(file);
+                } catch (@NotNull Throwable throwable) {
+                    log.error("Cannot load account '{}' from database: {}", file.getName(), throwable.getMessage());
+                    log.atInfo().setCause(throwable).log();
+
+                    return null;
+                } finally {
+                    int done = progress.incrementAndGet();
+
+                    if (files.length >= PROGRESS_THRESHOLD && done % step == 0) {
+                        log.info("Loading accounts... {}% ({}/{})", done * 100L / files.length, done, files.length);
+                    }
+                }
+            }).filter(Objects::nonNull).collect(Collectors.toList())).get();
+        } catch (@NotNull InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while loading the accounts", e);
+        } catch (@NotNull ExecutionException e) {
+            throw new IllegalStateException("cannot load the accounts", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public void write(@NotNull Collection<AccountImpl> accounts) throws IOException {
+        @Nullable IOException exception = null;
+
+        for (@NotNull AccountImpl account : accounts) try {
+            write(account);
+        } catch (@NotNull Throwable throwable) {
+            if (exception == null) exception = new IOException("cannot write one or more accounts into the database");
+            exception.addSuppressed(throwable);
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Writes the account into its database file. The data is written into a temporary file first, and
+     * then moved to replace the current file, so a crash while writing never corrupts the account file.
+     */
+    public void write(@NotNull AccountImpl account) throws IOException {
+        if (!getFolder().exists() && !getFolder().mkdirs()) {
+            throw new IllegalStateException("cannot create account '" + account.getName() + "' database file");
+        }
+
+        @NotNull JsonElement element = Serializer.toJson(account);
+        @NotNull Path temporary = Files.createTempFile(getFolder().toPath(), account.getUniqueId().toString(), ".tmp");
+
+        try {
+            try (@NotNull Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write(gson.toJson(element));
+            }
+
+            move(temporary, getFile(account.getUniqueId()).toPath());
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+
+        index(account);
+    }
+
+    // Nicknames index
+
+    private synchronized void index(@NotNull AccountImpl account) throws IOException {
+        if (index == null) return;
+
+        @NotNull String key = key(account.getName());
+        if (account.getUniqueId().equals(names.put(key, account.getUniqueId()))) {
+            return;
+        }
+
+        index.write(account.getUniqueId() + " " + key + "\n");
+        index.flush();
+    }
+
+    // Loaders
+
+    @Override
+    public synchronized void open() throws IOException {
+        @NotNull File file = new File(getFolder(), "names.index");
+
+        if (!getFolder().exists() && !getFolder().mkdirs()) {
+            throw new IllegalStateException("cannot create database file");
+        } else if (!indexed) {
+            // The index isn't maintained while it's disabled, it would be outdated
+            Files.deleteIfExists(file.toPath());
+            return;
+        } else if (index != null) {
+            throw new IllegalStateException("the nicknames index is already open");
+        }
+
+        names.clear();
+
+        if (file.exists() && !isOutdated(file)) {
+            try (@NotNull BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+                @Nullable String line;
+
+                while ((line = reader.readLine()) != null) try {
+                    if (line.length() > 37) {
+                        names.put(line.substring(37), UUID.fromString(line.substring(0, 36)));
+                    }
+                } catch (@NotNull IllegalArgumentException e) {
+                    log.warn("Skipping malformed nicknames index entry: '{}'", line);
+                }
+            }
+        } else {
+            log.info("The nicknames index {}, rebuilding it from the accounts files...", file.exists() ? "is outdated" : "doesn't exists");
+
+            for (@NotNull AccountImpl account : readAll()) {
+                names.put(key(account.getName()), account.getUniqueId());
+            }
+
+            compact(file);
+            log.info("Successfully indexed {} accounts nicknames", names.size());
+        }
+
+        this.index = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (index == null) return;
+
+        try {
+            index.close();
+        } finally {
+            index = null;
+        }
+
+        compact(new File(getFolder(), "names.index"));
+    }
+
+    // Utilities
+
+    /**
+     * @return true if any account file has been modified after the index file
+     */
+    private boolean isOutdated(@NotNull File file) {
+        long modified = file.lastModified();
+
+        for (@NotNull File account : getFiles()) {
+            if (account.lastModified() > modified) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+    private void compact(@NotNull File file) throws IOException {
+        @NotNull File temporary = new File(getFolder(), "names.index.tmp");
+
+        try (@NotNull Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temporary), StandardCharsets.UTF_8))) {
+            for (@NotNull Map.Entry<String, UUID> entry : names.entrySet()) {
+                writer.write(entry.getValue() + " " + entry.getKey() + "\n");
+            }
+        }
+
+        move(temporary.toPath(), file.toPath());
+    }
+    static void move(@NotNull Path source, @NotNull Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (@NotNull AtomicMoveNotSupportedException ignore) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private @NotNull String key(@NotNull String nickname) {
+        return caseFolded ? nickname.toLowerCase(Locale.ROOT) : nickname;
+    }
+
+}
@@ -1,18 +1,15 @@
 package com.laivyauth.bukkit.impl;
 
-import codes.laivy.serializable.Serializer;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParser;
 import com.laivyauth.api.account.Account;
 import com.laivyauth.api.config.Configuration;
 import com.laivyauth.api.exception.AccountExistsException;
 import com.laivyauth.api.mapping.Mapping;
+import com.laivyauth.api.password.PasswordHasher;
 import com.laivyauth.api.platform.Platform;
 import com.laivyauth.api.platform.Version;
 import com.laivyauth.bukkit.LaivyAuth;
 import com.laivyauth.bukkit.api.LaivyAuthApi;
+import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
@@ -25,10 +22,18 @@ import org.slf4j.LoggerFactory;
 import java.io.*;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.jar.JarFile;
 
@@ -44,7 +49,22 @@ final class LaivyAuthApiImpl implements LaivyAuthApi {
     private final @NotNull ReentrantLock lock = new ReentrantLock();
     private volatile boolean closed = false;
 
-    private final @NotNull Map<UUID, AccountImpl> accounts = new HashMap<>();
+    private final @NotNull AccountStore accounts;
+    private final @NotNull AccountStorage storage;
+    private final @Nullable AccountCache cache;
+
+    /**
+     * The accounts evicted from the memory, kept readable until the flusher has written them.
+     */
+    private final @NotNull AccountStore unloading;
+
+    private final @NotNull Set<AccountImpl> modified = ConcurrentHashMap.newKeySet();
+    private final @NotNull Set<UUID> authenticated = ConcurrentHashMap.newKeySet();
+    private final @NotNull GateListener gate;
+    private volatile @Nullable ScheduledExecutorService flusher;
+
+    private final @NotNull Passwords passwords;
+    private final @NotNull OnlinePlayers online;
 
     private final boolean successful;
 
@@ -57,6 +77,13 @@ final class LaivyAuthApiImpl implements LaivyAuthApi {
     private LaivyAuthApiImpl(@NotNull LaivyAuth plugin) {
         this.plugin = plugin;
         this.configuration = new ConfigurationImpl(this, YamlConfiguration.loadConfiguration(new File(getPlugin().getDataFolder(), "config.yml")));
+        this.accounts = new AccountStore(getConfiguration().isCaseSensitiveNicknames());
+        this.storage = createStorage();
+        this.cache = getConfiguration().isBufferedDatabase() ? null : new AccountCache(getConfiguration().getDatabase().getCacheSize());
+        this.unloading = new AccountStore(getConfiguration().isCaseSensitiveNicknames());
+        this.passwords = new Passwords(getConfiguration().getPasswords());
+        this.online = new OnlinePlayers(getConfiguration().isCaseSensitiveNicknames());
+        this.gate = new GateListener(this);
 
         // Load all mappings
         boolean successful = false;
@@ -131,52 +158,26 @@ final class LaivyAuthApiImpl implements LaivyAuthApi {
 
     @Override
     public @NotNull Optional<Account> getAccount(@NotNull String nickname) {
-        lock.lock();
-
-        try {
-            if (getConfiguration().isCaseSensitiveNicknames()) {
-                return accounts.values().stream().filter(account -> account.getName().equalsIgnoreCase(nickname)).map(account -> (Account) account).findFirst();
-            } else {
-                return accounts.values().stream().filter(account -> account.getName().equals(nickname)).map(account -> (Account) account).findFirst();
-            }
-        } finally {
-            lock.unlock();
-        }
+        return Optional.ofNullable(retrieve(nickname));
     }
     @Override
     public @NotNull Optional<Account> getAccount(@NotNull UUID uuid) {
-        lock.lock();
-
-        try {
-            return Optional.ofNullable(accounts.getOrDefault(uuid, null));
-        } finally {
-            lock.unlock();
-        }
+        return Optional.ofNullable(retrieve(uuid));
     }
 
     @Override
     public @NotNull Account getAccount(@NotNull Player player) {
-        lock.lock();
+        @Nullable AccountImpl account = retrieve(player.getUniqueId());
 
-        try {
-            if (!accounts.containsKey(player.getUniqueId())) {
-                throw new IllegalStateException("cannot retrieve an account for the online player '" + player.getName() +"'");
-            }
-
-            return accounts.get(player.getUniqueId());
-        } finally {
-            lock.unlock();
+        if (account == null) {
+            throw new IllegalStateException("cannot retrieve an account for the online player '" + player.getName() +"'");
         }
+
+        return account;
     }
     @Override
     public @NotNull Optional<Account> getAccount(@NotNull OfflinePlayer player) {
-        lock.lock();
-
-        try {
-            return Optional.ofNullable(accounts.getOrDefault(player.getUniqueId(), null));
-        } finally {
-            lock.unlock();
-        }
+        return Optional.ofNullable(retrieve(player.getUniqueId()));
     }
 
     @Override
@@ -191,7 +192,12 @@ final class LaivyAuthApiImpl implements LaivyAuthApi {
                 throw new AccountExistsException("an account with the nickname '" + nickname + "' already exists.");
             } else {
                 @NotNull AccountImpl account = new AccountImpl(this, nickname, uuid, true, null, null, false, null, null, Duration.ZERO);
-                accounts.put(uuid, account);
+                accounts.put(account);
+                modified.add(account);
+
+                if (cache != null) {
+                    unload(cache.loaded(account));
+                }
 
                 return account;
             }
@@ -201,7 +207,14 @@ final class LaivyAuthApiImpl implements LaivyAuthApi {
     }
 
     @Override
-    public synchronized @NotNull Account getOrCreate(@NotNull UUID uuid, @NotNull String nickname) {
+    public @NotNull Account getOrCreate(@NotNull UUID uuid, @NotNull String nickname) {
+        // Fast path, the account already exists and no lock is needed to retrieve it
+        @Nullable Account existing = accounts.get(uuid);
+        if (existing != null && existing.getName().equals(nickname)) {
+            return existing;
+        }
+
+        // The creation (and the conflicts check) must be atomic
         lock.lock();
 
         try {
@@ -228,6 +241,54 @@ final class LaivyAuthApiImpl implements LaivyAuthApi {
         return configuration;
     }
 
+    @Override
+    public @NotNull PasswordHasher getPasswordHasher() {
+        return getPasswords().getHasher();
+    }
+    @NotNull Passwords getPasswords() {
+        return passwords;
+    }
+    @NotNull GateListener getGate() {
+        return gate;
+    }
+
+    @Override
+    public boolean isAuthenticated(@NotNull UUID uuid) {
+        return authenticated.contains(uuid);
+    }
+
+    @Override
+    public void hold(@NotNull UUID uuid) {
+        if (cache == null) return;
+        lock.lock();
+
+        try {
+            cache.pin(uuid);
+        } finally {
+            lock.unlock();
+        }
+    }
+    @Override
+    public void release(@NotNull UUID uuid) {
+        if (cache == null) return;
+        lock.lock();
+
+        try {
+            unload(cache.unpin(uuid, accounts.get(uuid)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getOnlineCount(@NotNull InetAddress address) {
+        return online.getCount(address);
+    }
+    @Override
+    public boolean isOnline(@NotNull String nickname) {
+        return online.contains(nickname);
+    }
+
     @Override
     public @NotNull Version getVersion() {
         return Version.create(1, 0);
@@ -251,6 +312,215 @@ final class LaivyAuthApiImpl implements LaivyAuthApi {
         };
     }
 
+    // Accounts
+
+    void rename(@NotNull AccountImpl account, @NotNull String previous) {
+        lock.lock();
+
+        try {
+            accounts.rename(account, previous);
+            unloading.rename(account, previous);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the account as modified, it will be written into the database by the next flush.
+     */
+    void modified(@NotNull AccountImpl account) {
+        modified.add(account);
+    }
+
+    /**
+     * Updates the authenticated accounts index, used by the listeners to check the players
+     * without retrieving their accounts.
+     */
+    void authenticated(@NotNull AccountImpl account, boolean authenticated) {
+        if (authenticated) {
+            this.authenticated.add(account.getUniqueId());
+        } else {
+            this.authenticated.remove(account.getUniqueId());
+        }
+
+        gate.update();
+    }
+
+    /**
+     * Retrieves the account from the memory, or loads it from the disk if the database isn't buffered.
+     */
+    private @Nullable AccountImpl retrieve(@NotNull UUID uuid) {
+        @Nullable AccountImpl account = accounts.get(uuid);
+
+        if (account != null || cache == null) {
+            if (account != null && cache != null) cache.touch(uuid);
+            return account;
+        }
+
+        lock.lock();
+
+        try {
+            // Check again, it could be loaded while waiting for the lock
+            account = accounts.get(uuid);
+            if (account != null) return account;
+
+            // The account could be unloading, its latest changes could not be written yet
+            account = unloading.get(uuid);
+            if (account == null) account = storage.read(uuid);
+
+            if (account != null) {
+                unloading.remove(account);
+                accounts.put(account);
+                unload(cache.loaded(account));
+            }
+
+            return account;
+        } catch (@NotNull IOException e) {
+            throw new IllegalStateException("cannot load account '" + uuid + "' from database", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+    private @Nullable AccountImpl retrieve(@NotNull String nickname) {
+        @Nullable AccountImpl account = accounts.get(nickname);
+
+        if (account != null || cache == null) {
+            if (account != null && cache != null) cache.touch(account.getUniqueId());
+            return account;
+        }
+
+        lock.lock();
+
+        try {
+            // Check again, it could be loaded while waiting for the lock
+            account = accounts.get(nickname);
+            if (account != null) return account;
+
+            // The account could be unloading, its latest changes could not be written yet
+            @Nullable AccountImpl stored = unloading.get(nickname);
+
+            if (stored == null) {
+                stored = storage.read(nickname);
+                if (stored == null) return null;
+
+                // The account could be already at memory, with a nickname change that isn't saved yet
+                if (accounts.get(stored.getUniqueId()) != null || unloading.get(stored.getUniqueId()) != null) {
+                    return null;
+                }
+            }
+
+            unloading.remove(stored);
+            accounts.put(stored);
+            unload(cache.loaded(stored));
+
+            return stored;
+        } catch (@NotNull IOException e) {
+            throw new IllegalStateException("cannot load account '" + nickname + "' from database", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void join(@NotNull Player player) {
+        online.join(player);
+        gate.update();
+
+        if (cache == null) return;
+        lock.lock();
+
+        try {
+            // Pinned first, so the account is never put at the least recently used list
+            cache.pin(player.getUniqueId());
+            retrieve(player.getUniqueId());
+        } finally {
+            lock.unlock();
+        }
+    }
+    void quit(@NotNull Player player) {
+        online.quit(player);
+        gate.schedule(); // The player still is online
+
+        // Records the session's playing time, the storages only read a snapshot of it
+        @Nullable AccountImpl account = accounts.get(player.getUniqueId());
+        if (account != null) account.ping();
+
+        if (cache == null) return;
+        lock.lock();
+
+        try {
+            unload(cache.unpin(player.getUniqueId(), accounts.get(player.getUniqueId())));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the evicted accounts from the memory without writing them, since it's called while holding
+     * the lock (and by the network threads too). They're moved to the unloading accounts, still readable,
+     * until the flusher has written their latest changes.
+     */
+    private void unload(@NotNull Collection<AccountImpl> evicted) {
+        if (evicted.isEmpty()) return;
+
+        for (@NotNull AccountImpl account : evicted) {
+            accounts.remove(account);
+            unloading.put(account);
+        }
+
+        // The flusher is single-threaded, it only runs after the flush that could be writing them
+        @Nullable ScheduledExecutorService flusher = this.flusher;
+
+        if (flusher != null) try {
+            flusher.execute(this::unloaded);
+        } catch (@NotNull RejectedExecutionException ignore) {
+            // The flusher is stopping, the final flush will release them
+        }
+    }
+
+    /**
+     * Releases the unloading accounts that are already written (not modified anymore). It must only be
+     * called by the flusher, or after it has stopped, so no flush is writing them at the same time.
+     */
+    private void unloaded() {
+        lock.lock();
+
+        try {
+            for (@NotNull AccountImpl account : new ArrayList<>(unloading.values())) {
+                if (!modified.contains(account)) {
+                    unloading.remove(account);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes all the modified accounts into the database. The accounts that couldn't be written
+     * remain marked as modified, and will be written again by the next flush.
+     */
+    private void flush() {
+        @NotNull List<AccountImpl> batch = new ArrayList<>();
+
+        for (@NotNull Iterator<AccountImpl> iterator = modified.iterator(); iterator.hasNext(); ) {
+            batch.add(iterator.next());
+
+            // Removes it before writing, if it's modified while writing it will be marked again
+            iterator.remove();
+        }
+
+        if (!batch.isEmpty()) try {
+            storage.write(batch);
+        } catch (@NotNull Throwable throwable) {
+            modified.addAll(batch);
+
+            log.error("Cannot save {} accounts into database: {}", batch.size(), throwable.getMessage());
+            log.atDebug().setCause(throwable).log();
+        }
+
+        unloaded();
+    }
+
     public @NotNull Mapping getMapping() {
         if (closed) {
             throw new IllegalStateException("the implementation api is closed");
@@ -264,25 +534,97 @@ final class LaivyAuthApiImpl implements LaivyAuthApi {
     // Modules
 
     public void load() {
-        // Load all accounts
-        @NotNull File database = new File(getPlugin().getDataFolder(), "/database/");
-        if (!database.exists() && !database.mkdirs()) {
-            throw new IllegalStateException("cannot create database file");
-        } else {
-            @NotNull File @Nullable [] files = database.listFiles();
-            accounts.clear();
-
-            if (files != null) for (@NotNull File file : files) {
-                try (@NotNull FileInputStream stream = new FileInputStream(file)) {
-                    @NotNull JsonElement element = JsonParser.parseReader(new InputStreamReader(stream));
-                    @NotNull AccountImpl account = Objects.requireNonNull(Serializer.fromJson(AccountImpl.class, element));
-
-                    accounts.put(account.getUniqueId(), account);
-                } catch (@NotNull Throwable throwable) {
-                    log.error("Cannot load account '{}' from database: {}", file.getName(), throwable.getMessage());
-                    log.atInfo().setCause(throwable).log();
+        accounts.clear();
+        unloading.clear();
+
+        try {
+            storage.open();
+            migrate();
+
+            // Load all accounts, if the database is buffered. Otherwise, they will be loaded on demand.
+            if (cache == null) {
+                long start = System.currentTimeMillis();
+
+                for (@NotNull AccountImpl account : storage.readAll()) {
+                    accounts.put(account);
                 }
+
+                log.info("Successfully loaded {} accounts in {}ms", accounts.size(), System.currentTimeMillis() - start);
             }
+        } catch (@NotNull IOException e) {
+            throw new IllegalStateException("cannot load the accounts from the '" + storage.getName() + "' storage", e);
+        }
+
+        // Index the players already online (after a reload)
+        online.clear();
+
+        for (@NotNull Player player : Bukkit.getOnlinePlayers()) {
+            online.join(player);
+        }
+
+        // Start the write-behind flusher
+        long interval = getConfiguration().getDatabase().getFlushInterval().toMillis();
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+            @NotNull Thread thread = new Thread(runnable, "Accounts Flusher");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Moves the accounts of the json database folder into the configured storage. It's executed only
+     * once, since the migrated files are moved to the '/database/migrated/' folder.
+     */
+    private void migrate() throws IOException {
+        if (storage instanceof JsonAccountStorage) {
+            return;
+        }
+
+        @NotNull JsonAccountStorage json = new JsonAccountStorage(new File(getDataFolder(), "/database/"), getConfiguration().isCaseSensitiveNicknames(), false);
+        @NotNull File @NotNull [] files = json.getFiles();
+
+        if (files.length == 0) {
+            return;
+        }
+
+        log.info("Migrating {} accounts from the json database to the '{}' storage...", files.length, storage.getName());
+        long start = System.currentTimeMillis();
+
+        @NotNull Collection<AccountImpl> migrated = json.readAll();
+        storage.write(migrated);
+
+        // Move the json files, so they're not migrated again
+        @NotNull File folder = new File(json.getFolder(), "/migrated/");
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IllegalStateException("cannot create the migrated accounts folder");
+        }
+
+        for (@NotNull File file : files) {
+            Files.move(file.toPath(), new File(folder, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        @NotNull File index = new File(json.getFolder(), "names.index");
+        if (index.exists()) Files.move(index.toPath(), new File(folder, index.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        log.info("Successfully migrated {} accounts in {}ms, the json files were moved to the '{}' folder", migrated.size(), System.currentTimeMillis() - start, folder);
+    }
+
+    private @NotNull AccountStorage createStorage() {
+        @NotNull File folder = new File(getDataFolder(), "/database/");
+        boolean caseFolded = getConfiguration().isCaseSensitiveNicknames();
+
+        switch (getConfiguration().getDatabase().getStorage()) {
+            case LOG:
+                return new LogAccountStorage(this, new File(folder, "accounts.log"), caseFolded);
+            case SQL:
+                return new SqlAccountStorage(this, getConfiguration().getDatabase().getSql(), caseFolded);
+            case JSON:
+                return new JsonAccountStorage(folder, caseFolded, !getConfiguration().isBufferedDatabase());
+            default:
+                throw new UnsupportedOperationException("unsupported database storage '" + getConfiguration().getDatabase().getStorage() + "'");
         }
     }
 
@@ -297,30 +639,27 @@ final class LaivyAuthApiImpl implements LaivyAuthApi {
         closed = true;
 
         try {
-            @NotNull Gson gson = new GsonBuilder().setPrettyPrinting().create();
+            // Stop the flusher and write only the accounts that still are modified
+            if (flusher != null) try {
+                flusher.shutdown();
 
-            for (@NotNull AccountImpl account : accounts.values()) {
-                // Get file
-                @NotNull File file = new File(getPlugin().getDataFolder(), "/database/" + account.getUniqueId() + ".json");
-                if (!file.exists() && !file.getParentFile().mkdirs() & !file.createNewFile()) {
-                    throw new IllegalStateException("cannot create account '" + account.getName() + "' database file");
+                if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warn("The accounts flusher took too long to stop");
                 }
+            } catch (@NotNull InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
 
-                try {
-                    // Write data
-                    @NotNull JsonElement element = Serializer.toJson(account);
-
-                    try (@NotNull FileWriter writer = new FileWriter(file)) {
-                        writer.write(gson.toJson(element));
-                    }
-                } catch (@NotNull Throwable throwable) {
-                    log.error("Cannot unload account '{}' into database: {}", account.getName(), throwable.getMessage());
-                    log.atInfo().setCause(throwable).log();
+            flush();
 
-                    file.deleteOnExit();
-                }
+            try {
+                storage.close();
+            } catch (@NotNull IOException e) {
+                log.error("Cannot close the '{}' accounts storage: {}", storage.getName(), e.getMessage());
+                log.atDebug().setCause(e).log();
             }
 
+            passwords.close();
             if (mapping != null) mapping.close();
         } finally {
             mappings.clear();
@@ -0,0 +1,445 @@
+package com.laivyauth.bukkit.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * An accounts storage that keeps all the accounts at a single binary append-only file, the
+ * '{@code accounts.log}'. Each write appends a new record for the account, and the latest record
+ * of an account replaces all the previous ones.
+ * <p>
+ * The file starts with a header (magic number and format version) followed by the records. Each
+ * record has the payload size, the payload CRC32 checksum and the payload itself (the account at
+ * the {@link AccountImpl#write(AccountImpl, DataOutput) compact binary format}). When the storage
+ * opens, the file is replayed to build the positions index, and a corrupted or partially written
+ * tail (e.g. a crash while appending) is truncated.
+ * <p>
+ * The outdated records are removed by the compaction, which rewrites only the latest record of each
+ * account into a new file. It runs automatically when the outdated records are the majority of the file.
+ */
+final class LogAccountStorage implements AccountStorage {
+
+    // Static initializers
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(LogAccountStorage.class);
+
+    private static final int MAGIC = 0x4C41_4C47; // "LALG"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /**
+     * The maximum payload size of a record, the records' sizes are packed at 24 bits.
+     *
+     * @see #pointer(long, int)
+     */
+    private static final int MAXIMUM_PAYLOAD_SIZE = 0xFFFFFF - RECORD_HEADER_SIZE;
+
+    /**
+     * The minimum file size to compact it, small files aren't worth compacting.
+     */
+    private static final long COMPACTION_MINIMUM_SIZE = 1024 * 1024;
+
+    // Object
+
+    private final @NotNull LaivyAuthApiImpl api;
+    private final @NotNull File file;
+    private final boolean caseFolded;
+
+    /**
+     * The position of the latest record of each account, packed with its size.
+     *
+     * @see #pointer(long, int)
+     */
+    private final @NotNull Map<UUID, Long> pointers = new ConcurrentHashMap<>();
+    private final @NotNull Map<String, UUID> names = new ConcurrentHashMap<>();
+
+    private @Nullable FileChannel channel;
+    private long live = HEADER_SIZE;
+
+    LogAccountStorage(@NotNull LaivyAuthApiImpl api, @NotNull File file, boolean caseFolded) {
+        this.api = api;
+        this.file = file;
+        this.caseFolded = caseFolded;
+    }
+
+    // Getters
+
+    @Override
+    public @NotNull String getName() {
+        return "log";
+    }
+
+    public @NotNull File getFile() {
+        return file;
+    }
+
+    // Accounts
+
+    @Override
+    public synchronized @Nullable AccountImpl read(@NotNull UUID uuid) throws IOException {
+        @Nullable Long pointer = pointers.get(uuid);
+        if (pointer == null) return null;
+
+        @NotNull ByteBuffer buffer = ByteBuffer.allocate(size(pointer));
+        read(getChannel(), buffer, offset(pointer));
+
+        return decode(buffer);
+    }
+    @Override
+    public @Nullable AccountImpl read(@NotNull String nickname) throws IOException {
+        @NotNull String key = key(nickname);
+        @Nullable UUID uuid = names.get(key);
+        if (uuid == null) return null;
+
+        // The index entry could be outdated if the account has changed its nickname
+        @Nullable AccountImpl account = read(uuid);
+
+        if (account == null || !key(account.getName()).equals(key)) {
+            names.remove(key, uuid);
+            return null;
+        }
+
+        return account;
+    }
+
+    @Override
+    public synchronized @NotNull Collection<AccountImpl> readAll() throws IOException {
+        @NotNull List<AccountImpl> accounts = new ArrayList<>(pointers.size());
+        @NotNull FileChannel channel = getChannel();
+
+        for (@NotNull Map.Entry<UUID, Long> entry : pointers.entrySet()) try {
+            @NotNull ByteBuffer buffer = ByteBuffer.allocate(size(entry.getValue()));
+            read(channel, buffer, offset(entry.getValue()));
+
+            accounts.add(decode(buffer));
+        } catch (@NotNull IOException e) {
+            log.error("Cannot load account '{}' from database: {}", entry.getKey(), e.getMessage());
+            log.atInfo().setCause(e).log();
+        }
+
+        return accounts;
+    }
+
+    @Override
+    public synchronized void write(@NotNull Collection<AccountImpl> accounts) throws IOException {
+        if (accounts.isEmpty()) return;
+
+        @NotNull FileChannel channel = getChannel();
+        @NotNull ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        @NotNull DataOutputStream output = new DataOutputStream(bytes);
+
+        // Encode all the records first, so the batch is appended with a single write
+        @NotNull Map<AccountImpl, Long> records = new LinkedHashMap<>();
+        long start = channel.size();
+
+        for (@NotNull AccountImpl account : accounts) {
+            int position = bytes.size();
+            encode(account, output);
+
+            records.put(account, pointer(start + position, bytes.size() - position));
+        }
+
+        output.flush();
+
+        try {
+            write(channel, ByteBuffer.wrap(bytes.toByteArray()), start);
+            channel.force(false);
+        } catch (@NotNull IOException e) {
+            // Drops the partially appended batch, so the next records aren't written after a torn one
+            try {
+                channel.truncate(start);
+            } catch (@NotNull IOException truncate) {
+                e.addSuppressed(truncate);
+            }
+
+            throw e;
+        }
+
+        // Update the indexes
+        for (@NotNull Map.Entry<AccountImpl, Long> entry : records.entrySet()) {
+            index(entry.getKey().getUniqueId(), entry.getKey().getName(), entry.getValue());
+        }
+
+        if (channel.size() >= COMPACTION_MINIMUM_SIZE && channel.size() > live * 2) {
+            compact();
+        }
+    }
+
+    // Loaders
+
+    @Override
+    public synchronized void open() throws IOException {
+        if (channel != null) {
+            throw new IllegalStateException("the accounts log is already open");
+        } else if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+            throw new IllegalStateException("cannot create database file");
+        }
+
+        pointers.clear();
+        names.clear();
+        live = HEADER_SIZE;
+
+        long start = System.currentTimeMillis();
+        long position = replay();
+
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (channel.size() > position) {
+            log.warn("The accounts log has a corrupted tail, truncating {} bytes from it", channel.size() - position);
+            channel.truncate(position);
+        }
+
+        if (channel.size() == 0) {
+            @NotNull ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+
+            write(channel, header, 0);
+        }
+
+        log.info("Successfully replayed the accounts log with {} accounts in {}ms", pointers.size(), System.currentTimeMillis() - start);
+
+        if (channel.size() >= COMPACTION_MINIMUM_SIZE && channel.size() > live * 2) {
+            compact();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null) return;
+
+        try {
+            channel.force(true);
+            channel.close();
+        } finally {
+            channel = null;
+        }
+    }
+
+    // Modules
+
+    /**
+     * Rewrites the log file keeping only the latest record of each account.
+     */
+    public synchronized void compact() throws IOException {
+        @NotNull FileChannel channel = getChannel();
+        @NotNull Path temporary = new File(file.getParentFile(), file.getName() + ".tmp").toPath();
+
+        long start = System.currentTimeMillis();
+        long previous = channel.size();
+
+        @NotNull Map<UUID, Long> compacted = new HashMap<>();
+
+        try (@NotNull FileChannel output = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            @NotNull ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            write(output, header, 0);
+
+            long position = HEADER_SIZE;
+
+            for (@NotNull Map.Entry<UUID, Long> entry : pointers.entrySet()) {
+                long offset = offset(entry.getValue());
+                int size = size(entry.getValue());
+
+                long transferred = 0;
+                while (transferred < size) {
+                    transferred += channel.transferTo(offset + transferred, size - transferred, output.position(position + transferred));
+                }
+
+                compacted.put(entry.getKey(), pointer(position, size));
+                position += size;
+            }
+
+            output.force(true);
+        }
+
+        // Replace the current log
+        channel.close();
+        this.channel = null;
+
+        try {
+            JsonAccountStorage.move(temporary, file.toPath());
+        } catch (@NotNull IOException e) {
+            // Keeps using the current log, its pointers still are valid
+            try {
+                this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+                Files.deleteIfExists(temporary);
+            } catch (@NotNull IOException reopen) {
+                e.addSuppressed(reopen);
+            }
+
+            throw e;
+        }
+
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.pointers.putAll(compacted);
+        this.live = this.channel.size();
+
+        log.info("Successfully compacted the accounts log from {} to {} bytes in {}ms", previous, live, System.currentTimeMillis() - start);
+    }
+
+    // Utilities
+
+    private @NotNull FileChannel getChannel() {
+        if (channel == null) {
+            throw new IllegalStateException("the accounts log isn't open");
+        }
+
+        return channel;
+    }
+
+    /**
+     * Reads all the records of the log file, building the indexes.
+     *
+     * @return the position where the last valid record ends
+     */
+    private long replay() throws IOException {
+        long size = file.length();
+
+        if (!file.exists() || size < HEADER_SIZE) {
+            // There's no records, at most a partially written header
+            return 0;
+        }
+
+        try (@NotNull DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath()), 65536))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("the file '" + file.getName() + "' isn't a valid accounts log");
+            }
+
+            int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported accounts log version " + version);
+            }
+
+            long position = HEADER_SIZE;
+            @NotNull CRC32 crc = new CRC32();
+
+            while (true) {
+                int length;
+                int checksum;
+                byte @NotNull [] payload;
+
+                try {
+                    length = input.readInt();
+                    checksum = input.readInt();
+
+                    // A corrupted length must not be allocated, it's the tail
+                    if (length <= 0 || length > MAXIMUM_PAYLOAD_SIZE || length > size - position - RECORD_HEADER_SIZE) {
+                        return position;
+                    }
+
+                    payload = new byte[length];
+                    input.readFully(payload);
+                } catch (@NotNull EOFException e) {
+                    return position;
+                }
+
+                crc.reset();
+                crc.update(payload, 0, payload.length);
+
+                if ((int) crc.getValue() != checksum) {
+                    return position;
+                }
+
+                // Only the unique id and nickname are needed to index it
+                @NotNull DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                @NotNull UUID uuid = new UUID(record.readLong(), record.readLong());
+                @NotNull String name = record.readUTF();
+
+                int size = RECORD_HEADER_SIZE + length;
+                index(uuid, name, pointer(position, size));
+
+                position += size;
+            }
+        }
+    }
+
+    private void index(@NotNull UUID uuid, @NotNull String name, long pointer) {
+        @Nullable Long previous = pointers.put(uuid, pointer);
+
+        if (previous != null) live -= size(previous);
+        live += size(pointer);
+
+        names.put(key(name), uuid);
+    }
+
+    private void encode(@NotNull AccountImpl account, @NotNull DataOutputStream output) throws IOException {
+        @NotNull ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        AccountImpl.write(account, new DataOutputStream(bytes));
+
+        byte @NotNull [] payload = bytes.toByteArray();
+        if (payload.length > MAXIMUM_PAYLOAD_SIZE) {
+            throw new IOException("the account '" + account.getUniqueId() + "' record is too large (" + payload.length + " bytes)");
+        }
+
+        @NotNull CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        output.writeInt(payload.length);
+        output.writeInt((int) crc.getValue());
+        output.write(payload);
+    }
+    private @NotNull AccountImpl decode(@NotNull ByteBuffer buffer) throws IOException {
+        buffer.flip();
+
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+
+        byte @NotNull [] payload = new byte[length];
+        buffer.get(payload);
+
+        @NotNull CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("the account record checksum doesn't match, it's corrupted");
+        }
+
+        return AccountImpl.read(api, new DataInputStream(new ByteArrayInputStream(payload)));
+    }
+
+    private static void read(@NotNull FileChannel channel, @NotNull ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("unexpected end of the accounts log");
+            }
+        }
+    }
+    private static void write(@NotNull FileChannel channel, @NotNull ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Packs a record position (up to 1TB) and size (up to 16MB) into a single long, so the positions
+     * index doesn't need an extra object per account.
+     */
+    private static long pointer(long offset, int size) {
+        return (offset << 24) | (size & 0xFFFFFFL);
+    }
+    private static long offset(long pointer) {
+        return pointer >>> 24;
+    }
+    private static int size(long pointer) {
+        return (int) (pointer & 0xFFFFFFL);
+    }
+
+    private @NotNull String key(@NotNull String nickname) {
+        return caseFolded ? nickname.toLowerCase(Locale.ROOT) : nickname;
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.laivyauth.bukkit.impl;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The index of the online players, maintained by the join and quit events.
+ * <p>
+ * It's read by the network threads while the players are connecting, so every lookup is O(1) and
+ * lock-free, instead of a scan over the online players. The addresses are the players' ones as the
+ * server's network managers see them (the forwarded ones behind a proxy with ip forwarding), and the
+ * mappings read the same network manager address at the login, so both sides always match. No name
+ * resolution is performed, and the nicknames are case-folded when the nicknames are case-sensitive,
+ * like the accounts' ones.
+ */
+final class OnlinePlayers {
+
+    // Object
+
+    private final @NotNull Map<UUID, InetAddress> players = new ConcurrentHashMap<>();
+    private final @NotNull Map<InetAddress, Integer> addresses = new ConcurrentHashMap<>();
+    private final @NotNull Map<String, UUID> nicknames = new ConcurrentHashMap<>();
+
+    private final boolean caseFolded;
+
+    OnlinePlayers(boolean caseFolded) {
+        this.caseFolded = caseFolded;
+    }
+
+    // Getters
+
+    public int getCount(@NotNull InetAddress address) {
+        return addresses.getOrDefault(address, 0);
+    }
+    public boolean contains(@NotNull String nickname) {
+        return nicknames.containsKey(key(nickname));
+    }
+
+    // Modules
+
+    public void join(@NotNull Player player) {
+        nicknames.put(key(player.getName()), player.getUniqueId());
+
+        @Nullable InetSocketAddress socket = player.getAddress();
+        @Nullable InetAddress address = socket != null ? socket.getAddress() : null;
+
+        // The address is kept to decrement the same counter at the quit, even if it's unavailable there
+        if (address != null && players.putIfAbsent(player.getUniqueId(), address) == null) {
+            addresses.merge(address, 1, Integer::sum);
+        }
+    }
+    public void quit(@NotNull Player player) {
+        nicknames.remove(key(player.getName()), player.getUniqueId());
+
+        @Nullable InetAddress address = players.remove(player.getUniqueId());
+
+        if (address != null) {
+            addresses.computeIfPresent(address, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    public void clear() {
+        players.clear();
+        addresses.clear();
+        nicknames.clear();
+    }
+
+    // Utilities
+
+    private @NotNull String key(@NotNull String nickname) {
+        return caseFolded ? nickname.toLowerCase(Locale.ROOT) : nickname;
+    }
+
+}
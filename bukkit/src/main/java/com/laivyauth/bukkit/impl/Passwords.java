@@ -0,0 +1,261 @@
+package com.laivyauth.bukkit.impl;
+
+import com.laivyauth.api.config.Configuration;
+import com.laivyauth.api.password.PasswordHasher;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is responsible for hashing and verifying the players' passwords outside the server's
+ * main thread. The password hashing algorithms are intentionally slow (tens of milliseconds per
+ * operation), and executing them at the main thread freezes the whole server while a player logs in.
+ * <p>
+ * The operations are executed by a bounded pool of daemon threads. If the pool is saturated, the
+ * returned future completes exceptionally, and the caller should ask the player to try again later.
+ * <p>
+ * The new passwords are always hashed with the configured algorithm, but every supported algorithm is
+ * able to verify the stored ones. The plain text passwords of older versions are still accepted, and
+ * the successful verifications of plain text, outdated or different algorithm passwords return a new
+ * hash to replace the stored one.
+ */
+final class Passwords implements Closeable {
+
+    // Static initializers
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(Passwords.class);
+
+    private static final int QUEUE_SIZE_PER_THREAD = 64;
+
+    // OWASP's recommended costs
+    private static final int ARGON2_MEMORY = 19456;
+    private static final int ARGON2_ITERATIONS = 2;
+    private static final int ARGON2_PARALLELISM = 1;
+    private static final int BCRYPT_COST = 12;
+    private static final int PBKDF2_ITERATIONS = 210000;
+
+    // Object
+
+    private final @NotNull PasswordHasher hasher;
+    private final @NotNull PasswordHasher @NotNull [] hashers;
+
+    private final @NotNull ThreadPoolExecutor executor;
+
+    /**
+     * Constructor for Passwords.
+     *
+     * @param configuration the passwords configuration, with the algorithm and the number of hashing threads.
+     */
+    Passwords(@NotNull Configuration.Passwords configuration) {
+        this.hashers = new PasswordHasher[] {
+                new Argon2PasswordHasher(ARGON2_MEMORY, ARGON2_ITERATIONS, ARGON2_PARALLELISM),
+                new BCryptPasswordHasher(BCRYPT_COST),
+                new Pbkdf2PasswordHasher(PBKDF2_ITERATIONS)
+        };
+
+        switch (configuration.getAlgorithm()) {
+            case ARGON2ID:
+                this.hasher = hashers[0];
+                break;
+            case BCRYPT:
+                this.hasher = hashers[1];
+                break;
+            case PBKDF2:
+                this.hasher = hashers[2];
+                break;
+            default:
+                throw new UnsupportedOperationException("unsupported password algorithm '" + configuration.getAlgorithm() + "'");
+        }
+
+        int threads = configuration.getHashingThreads();
+        @NotNull AtomicInteger count = new AtomicInteger(0);
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads * QUEUE_SIZE_PER_THREAD), (runnable) -> {
+            @NotNull Thread thread = new Thread(runnable, "Password Hasher #" + count.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    // Getters
+
+    /**
+     * @return the hasher of the configured algorithm, used to hash the new passwords.
+     */
+    public @NotNull PasswordHasher getHasher() {
+        return hasher;
+    }
+
+    /**
+     * @param hash the stored password
+     * @return the hasher able to verify the stored password, or null if it's a plain text password.
+     */
+    public @Nullable PasswordHasher getHasher(@NotNull String hash) {
+        for (@NotNull PasswordHasher hasher : hashers) {
+            if (hasher.isCompatible(hash)) {
+                return hasher;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the number of passwords waiting for a free hashing thread.
+     */
+    public int getPending() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return the number of passwords being hashed or verified at this moment.
+     */
+    public int getActive() {
+        return executor.getActiveCount();
+    }
+
+    // Modules
+
+    /**
+     * Hashes the password with the configured algorithm, outside the caller thread.
+     * <p>
+     * The returned future is completed by the hashing thread, so the caller is responsible
+     * for moving the result back to the server's main thread.
+     *
+     * @param password the plain password, it must not be modified until the future completes.
+     * @return a future that completes with the encoded hash, or exceptionally if it fails or gets rejected.
+     */
+    public @NotNull CompletableFuture<@NotNull String> hash(char @NotNull [] password) {
+        return submit(() -> getHasher().hash(password));
+    }
+
+    /**
+     * Verifies the password against the stored one, outside the caller thread.
+     * <p>
+     * The returned future is completed by the hashing thread, so the caller is responsible
+     * for moving the result back to the server's main thread.
+     *
+     * @param password the plain password, it must not be modified until the future completes.
+     * @param stored the stored password, an encoded hash or a plain text password of older versions.
+     * @return a future that completes with the verification result, or exceptionally if it fails or gets rejected.
+     */
+    public @NotNull CompletableFuture<@NotNull Verification> verify(char @NotNull [] password, char @NotNull [] stored) {
+        return submit(() -> {
+            @NotNull String hash = new String(stored);
+            @Nullable PasswordHasher hasher = getHasher(hash);
+
+            if (hasher == null) {
+                // Plain text password, from older versions
+                if (!equals(password, stored)) {
+                    return new Verification(false, null);
+                }
+            } else try {
+                if (!hasher.verify(password, hash)) {
+                    return new Verification(false, null);
+                } else if (hasher == getHasher() && !hasher.isOutdated(hash)) {
+                    return new Verification(true, null);
+                }
+            } catch (@NotNull IllegalArgumentException e) {
+                log.error("Cannot verify a malformed '{}' password hash: {}", hasher.getAlgorithm(), e.getMessage());
+                log.atDebug().setCause(e).log();
+
+                return new Verification(false, null);
+            }
+
+            // The stored password must be replaced by a hash of the configured algorithm
+            return new Verification(true, getHasher().hash(password));
+        });
+    }
+
+    private <T> @NotNull CompletableFuture<T> submit(@NotNull Callable<T> callable) {
+        @NotNull CompletableFuture<T> future = new CompletableFuture<>();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(callable.call());
+                } catch (@NotNull Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                }
+            });
+        } catch (@NotNull RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    // Loaders
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // Utilities
+
+    /**
+     * Compares both passwords in constant time, to not leak how many characters matched.
+     */
+    private static boolean equals(char @NotNull [] first, char @NotNull [] second) {
+        byte @NotNull [] a = encode(first);
+        byte @NotNull [] b = encode(second);
+
+        try {
+            return MessageDigest.isEqual(a, b);
+        } finally {
+            Arrays.fill(a, (byte) 0);
+            Arrays.fill(b, (byte) 0);
+        }
+    }
+    private static byte @NotNull [] encode(char @NotNull [] characters) {
+        @NotNull ByteBuffer buffer = StandardCharsets.UTF_8.encode(CharBuffer.wrap(characters));
+        byte @NotNull [] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+
+        return bytes;
+    }
+
+    // Classes
+
+    static final class Verification {
+
+        private final boolean matches;
+        private final @Nullable String rehash;
+
+        private Verification(boolean matches, @Nullable String rehash) {
+            this.matches = matches;
+            this.rehash = rehash;
+        }
+
+        // Getters
+
+        /**
+         * @return true if the password matches the stored one
+         */
+        public boolean matches() {
+            return matches;
+        }
+
+        /**
+         * @return the new hash that must replace the stored password, or null if the stored one is up-to-date.
+         */
+        public @Nullable String getRehash() {
+            return rehash;
+        }
+
+    }
+
+}
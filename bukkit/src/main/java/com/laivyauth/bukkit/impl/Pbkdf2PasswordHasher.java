@@ -0,0 +1,114 @@
+package com.laivyauth.bukkit.impl;
+
+import com.laivyauth.api.password.PasswordHasher;
+import org.jetbrains.annotations.NotNull;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * The PBKDF2 (HMAC-SHA256) password hasher, available at every java runtime.
+ * <p>
+ * Format: {@code $pbkdf2-sha256$i=<iterations>$<salt>$<hash>}
+ */
+final class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    // Static initializers
+
+    private static final @NotNull String PREFIX = "$pbkdf2-sha256$";
+
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
+    // Object
+
+    private final int iterations;
+    private final @NotNull SecureRandom random = new SecureRandom();
+
+    Pbkdf2PasswordHasher(int iterations) {
+        this.iterations = iterations;
+    }
+
+    // Getters
+
+    @Override
+    public @NotNull String getAlgorithm() {
+        return "pbkdf2-sha256";
+    }
+
+    @Override
+    public boolean isCompatible(@NotNull String hash) {
+        return hash.startsWith(PREFIX);
+    }
+    @Override
+    public boolean isOutdated(@NotNull String hash) {
+        return parse(hash).iterations < iterations;
+    }
+
+    // Modules
+
+    @Override
+    public @NotNull String hash(char @NotNull [] password) {
+        byte @NotNull [] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+
+        @NotNull Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "i=" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(derive(password, salt, iterations, HASH_LENGTH));
+    }
+    @Override
+    public boolean verify(char @NotNull [] password, @NotNull String hash) {
+        @NotNull Parameters parameters = parse(hash);
+        return MessageDigest.isEqual(parameters.hash, derive(password, parameters.salt, parameters.iterations, parameters.hash.length));
+    }
+
+    // Utilities
+
+    private static byte @NotNull [] derive(char @NotNull [] password, byte @NotNull [] salt, int iterations, int length) {
+        @NotNull PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, length * 8);
+
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (@NotNull GeneralSecurityException e) {
+            throw new IllegalStateException("the PBKDF2WithHmacSHA256 algorithm isn't available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static @NotNull Parameters parse(@NotNull String hash) {
+        // ["", "pbkdf2-sha256", "i=<iterations>", "<salt>", "<hash>"]
+        @NotNull String[] parts = hash.split("\\$");
+
+        if (!hash.startsWith(PREFIX) || parts.length != 5 || !parts[2].startsWith("i=")) {
+            throw new IllegalArgumentException("malformed pbkdf2 hash");
+        }
+
+        try {
+            @NotNull Base64.Decoder decoder = Base64.getDecoder();
+            return new Parameters(Integer.parseInt(parts[2].substring(2)), decoder.decode(parts[3]), decoder.decode(parts[4]));
+        } catch (@NotNull IllegalArgumentException e) {
+            throw new IllegalArgumentException("malformed pbkdf2 hash", e);
+        }
+    }
+
+    // Classes
+
+    private static final class Parameters {
+
+        private final int iterations;
+        private final byte @NotNull [] salt;
+        private final byte @NotNull [] hash;
+
+        private Parameters(int iterations, byte @NotNull [] salt, byte @NotNull [] hash) {
+            this.iterations = iterations;
+            this.salt = salt;
+            this.hash = hash;
+        }
+
+    }
+
+}
@@ -0,0 +1,272 @@
+package com.laivyauth.bukkit.impl;
+
+import com.laivyauth.api.account.Account.Type;
+import com.laivyauth.api.config.Configuration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * An accounts storage that keeps the accounts at a sql database table, using jdbc.
+ * <p>
+ * The table is indexed by the account unique id (primary key) and by the nickname key (the lowercase
+ * nickname, when the nicknames are case-folded), so each lookup is a single indexed query. The
+ * modified accounts are written using batched upserts, at a single transaction per flush.
+ * <p>
+ * The upsert statement depends on the database: MySQL/MariaDB, SQLite/PostgreSQL and H2 have their
+ * native upserts, the other databases use a "delete and insert" at the same transaction.
+ * <p>
+ * The table is owned by a single server: there's no invalidation or locking between servers, and the
+ * whole rows are written back, so servers sharing a table would overwrite each other's changes.
+ */
+final class SqlAccountStorage implements AccountStorage {
+
+    // Static initializers
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(SqlAccountStorage.class);
+
+    private static final @NotNull String COLUMNS = "uuid, name, name_key, type, password, registration, playing_time";
+    private static final int FETCH_SIZE = 1000;
+
+    // Object
+
+    private final @NotNull LaivyAuthApiImpl api;
+    private final @NotNull SqlConnectionPool pool;
+    private final @NotNull String table;
+    private final boolean caseFolded;
+
+    private @Nullable String upsert;
+
+    SqlAccountStorage(@NotNull LaivyAuthApiImpl api, @NotNull Configuration.Database.Sql sql, boolean caseFolded) {
+        this.api = api;
+        this.pool = new SqlConnectionPool(sql.getUrl(), sql.getUsername(), sql.getPassword(), sql.getPoolSize());
+        this.table = sql.getTable();
+        this.caseFolded = caseFolded;
+    }
+
+    // Getters
+
+    @Override
+    public @NotNull String getName() {
+        return "sql";
+    }
+
+    // Accounts
+
+    @Override
+    public @Nullable AccountImpl read(@NotNull UUID uuid) throws IOException {
+        return query("SELECT " + COLUMNS + " FROM " + table + " WHERE uuid = ?", uuid.toString());
+    }
+    @Override
+    public @Nullable AccountImpl read(@NotNull String nickname) throws IOException {
+        return query("SELECT " + COLUMNS + " FROM " + table + " WHERE name_key = ?", key(nickname));
+    }
+
+    @Override
+    public @NotNull Collection<AccountImpl> readAll() throws IOException {
+        @NotNull List<AccountImpl> accounts = new ArrayList<>();
+        @NotNull Connection connection = borrow();
+
+        try (@NotNull Statement statement = connection.createStatement()) {
+            statement.setFetchSize(FETCH_SIZE);
+
+            try (@NotNull ResultSet set = statement.executeQuery("SELECT " + COLUMNS + " FROM " + table)) {
+                while (set.next()) try {
+                    accounts.add(deserialize(set));
+                } catch (@NotNull SQLException | @NotNull RuntimeException e) {
+                    log.error("Cannot load account '{}' from database: {}", set.getString("uuid"), e.getMessage());
+                    log.atInfo().setCause(e).log();
+                }
+            }
+        } catch (@NotNull SQLException e) {
+            throw new IOException("cannot read the accounts from the '" + table + "' table", e);
+        } finally {
+            pool.release(connection);
+        }
+
+        return accounts;
+    }
+
+    @Override
+    public void write(@NotNull Collection<AccountImpl> accounts) throws IOException {
+        if (accounts.isEmpty()) return;
+        @NotNull Connection connection = borrow();
+
+        try {
+            connection.setAutoCommit(false);
+
+            if (upsert != null) {
+                try (@NotNull PreparedStatement statement = connection.prepareStatement(upsert)) {
+                    for (@NotNull AccountImpl account : accounts) {
+                        serialize(account, statement);
+                        statement.addBatch();
+                    }
+
+                    statement.executeBatch();
+                }
+            } else {
+                try (@NotNull PreparedStatement delete = connection.prepareStatement("DELETE FROM " + table + " WHERE uuid = ?");
+                     @NotNull PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table + " (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                    for (@NotNull AccountImpl account : accounts) {
+                        delete.setString(1, account.getUniqueId().toString());
+                        delete.addBatch();
+
+                        serialize(account, insert);
+                        insert.addBatch();
+                    }
+
+                    delete.executeBatch();
+                    insert.executeBatch();
+                }
+            }
+
+            connection.commit();
+        } catch (@NotNull SQLException e) {
+            throw new IOException("cannot write " + accounts.size() + " accounts into the '" + table + "' table", e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    // Loaders
+
+    @Override
+    public void open() throws IOException {
+        @NotNull Connection connection = borrow();
+
+        try {
+            try (@NotNull Statement statement = connection.createStatement()) {
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + table + " (" +
+                        "uuid CHAR(36) NOT NULL PRIMARY KEY, " +
+                        "name VARCHAR(32) NOT NULL, " +
+                        "name_key VARCHAR(32) NOT NULL, " +
+                        "type VARCHAR(16), " +
+                        "password VARCHAR(512), " +
+                        "registration BIGINT, " +
+                        "playing_time BIGINT NOT NULL" +
+                        ")");
+            }
+
+            // Nicknames index
+            if (!hasIndex(connection, table + "_name_key")) try (@NotNull Statement statement = connection.createStatement()) {
+                statement.executeUpdate("CREATE INDEX " + table + "_name_key ON " + table + " (name_key)");
+            }
+
+            // Upsert statement of this database
+            @NotNull String product = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+            @NotNull String values = "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+            if (product.contains("mysql") || product.contains("mariadb")) {
+                this.upsert = "INSERT INTO " + table + " (" + COLUMNS + ") " + values + " ON DUPLICATE KEY UPDATE " +
+                        "name = VALUES(name), name_key = VALUES(name_key), type = VALUES(type), password = VALUES(password), registration = VALUES(registration), playing_time = VALUES(playing_time)";
+            } else if (product.contains("sqlite") || product.contains("postgresql")) {
+                this.upsert = "INSERT INTO " + table + " (" + COLUMNS + ") " + values + " ON CONFLICT (uuid) DO UPDATE SET " +
+                        "name = excluded.name, name_key = excluded.name_key, type = excluded.type, password = excluded.password, registration = excluded.registration, playing_time = excluded.playing_time";
+            } else if (product.equals("h2")) {
+                this.upsert = "MERGE INTO " + table + " (" + COLUMNS + ") KEY (uuid) " + values;
+            } else {
+                this.upsert = null;
+            }
+
+            log.info("Successfully connected to the '{}' database, using the '{}' table", connection.getMetaData().getDatabaseProductName(), table);
+        } catch (@NotNull SQLException e) {
+            throw new IOException("cannot prepare the '" + table + "' accounts table", e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    // Utilities
+
+    private @NotNull Connection borrow() throws IOException {
+        try {
+            return pool.borrow();
+        } catch (@NotNull SQLException e) {
+            throw new IOException("cannot connect to the accounts database", e);
+        }
+    }
+
+    private @Nullable AccountImpl query(@NotNull String sql, @NotNull String parameter) throws IOException {
+        @NotNull Connection connection = borrow();
+
+        try (@NotNull PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, parameter);
+
+            try (@NotNull ResultSet set = statement.executeQuery()) {
+                return set.next() ? deserialize(set) : null;
+            }
+        } catch (@NotNull SQLException e) {
+            throw new IOException("cannot read account '" + parameter + "' from the '" + table + "' table", e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    private boolean hasIndex(@NotNull Connection connection, @NotNull String name) throws SQLException {
+        @NotNull DatabaseMetaData metadata = connection.getMetaData();
+
+        // Some databases store the identifiers in uppercase (H2) or lowercase (PostgreSQL)
+        for (@NotNull String identifier : new String[] { table, table.toUpperCase(Locale.ROOT), table.toLowerCase(Locale.ROOT) }) {
+            try (@NotNull ResultSet set = metadata.getIndexInfo(null, null, identifier, false, false)) {
+                while (set.next()) {
+                    if (name.equalsIgnoreCase(set.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private void serialize(@NotNull AccountImpl account, @NotNull PreparedStatement statement) throws SQLException {
+        @Nullable Type type = account.getStoredType();
+        char @Nullable [] password = account.getPassword();
+        @Nullable Instant registration = account.getRegistration();
+
+        statement.setString(1, account.getUniqueId().toString());
+        statement.setString(2, account.getName());
+        statement.setString(3, key(account.getName()));
+        statement.setString(4, type != null ? type.name() : null);
+        statement.setString(5, password != null ? new String(password) : null);
+
+        if (registration != null) {
+            statement.setLong(6, registration.toEpochMilli());
+        } else {
+            statement.setNull(6, Types.BIGINT);
+        }
+
+        statement.setLong(7, account.getStoredPlayingTime().toMillis());
+    }
+    private @NotNull AccountImpl deserialize(@NotNull ResultSet set) throws SQLException {
+        @NotNull UUID uuid = UUID.fromString(set.getString("uuid"));
+        @NotNull String name = set.getString("name");
+
+        @Nullable String type = set.getString("type");
+        @Nullable String password = set.getString("password");
+
+        long registration = set.getLong("registration");
+        boolean registered = !set.wasNull();
+
+        @NotNull Duration playingTime = Duration.ofMillis(set.getLong("playing_time"));
+
+        return new AccountImpl(api, name, uuid, false, type != null ? Type.valueOf(type) : null, password != null ? password.toCharArray() : null, false, 1, registered ? Instant.ofEpochMilli(registration) : null, playingTime);
+    }
+
+    private @NotNull String key(@NotNull String nickname) {
+        return caseFolded ? nickname.toLowerCase(Locale.ROOT) : nickname;
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.laivyauth.bukkit.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A small fixed-size jdbc connections pool. The connections are created on demand (up to the pool
+ * size), validated when borrowed and reused until the pool closes.
+ * <p>
+ * Every borrowed connection must be returned using {@link #release(Connection)}.
+ */
+final class SqlConnectionPool implements Closeable {
+
+    // Static initializers
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(SqlConnectionPool.class);
+
+    private static final @NotNull Duration BORROW_TIMEOUT = Duration.ofSeconds(10);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    // Object
+
+    private final @NotNull String url;
+    private final @NotNull String username;
+    private final @NotNull String password;
+
+    private final int size;
+    private final @NotNull AtomicInteger created = new AtomicInteger(0);
+    private final @NotNull BlockingQueue<Connection> idle;
+
+    private volatile boolean closed = false;
+
+    SqlConnectionPool(@NotNull String url, @NotNull String username, @NotNull String password, int size) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.size = size;
+        this.idle = new ArrayBlockingQueue<>(size);
+    }
+
+    // Getters
+
+    public int getSize() {
+        return size;
+    }
+
+    // Modules
+
+    public @NotNull Connection borrow() throws SQLException {
+        while (true) {
+            if (closed) {
+                throw new SQLException("the connections pool is closed");
+            }
+
+            @Nullable Connection connection = idle.poll();
+
+            // Create a new connection, if the pool isn't full yet
+            if (connection == null) {
+                int count = created.get();
+
+                if (count < size && created.compareAndSet(count, count + 1)) try {
+                    return DriverManager.getConnection(url, username, password);
+                } catch (@NotNull SQLException e) {
+                    created.decrementAndGet();
+                    throw e;
+                }
+
+                try {
+                    connection = idle.poll(BORROW_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (@NotNull InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("interrupted while waiting for a database connection", e);
+                }
+
+                if (connection == null) {
+                    throw new SQLTimeoutException("there's no database connection available after " + BORROW_TIMEOUT.getSeconds() + " seconds");
+                }
+            }
+
+            // Discard broken connections
+            if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return connection;
+            } else {
+                discard(connection);
+            }
+        }
+    }
+    public void release(@NotNull Connection connection) {
+        try {
+            if (!connection.isClosed() && !connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (@NotNull SQLException e) {
+            discard(connection);
+            return;
+        }
+
+        if (closed || !idle.offer(connection)) {
+            discard(connection);
+        }
+    }
+
+    // Loaders
+
+    @Override
+    public void close() {
+        closed = true;
+
+        @Nullable Connection connection;
+        while ((connection = idle.poll()) != null) {
+            discard(connection);
+        }
+    }
+
+    // Utilities
+
+    private void discard(@NotNull Connection connection) {
+        created.decrementAndGet();
+
+        try {
+            connection.close();
+        } catch (@NotNull SQLException e) {
+            log.atDebug().setCause(e).log("Cannot close database connection");
+        }
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.laivyauth.bukkit.impl;
+
+import com.laivyauth.api.account.Account.Type;
+import com.laivyauth.api.config.Configuration;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the sql storage against a real database, each subclass provides the jdbc url of its database.
+ */
+abstract class SqlAccountStorageTest {
+
+    // Static initializers
+
+    private static final @NotNull String TABLE = "laivyauth_accounts";
+
+    @BeforeAll
+    static void server() {
+        // The accounts check if their players are online when created
+        if (Bukkit.getServer() != null) return;
+
+        @NotNull Logger logger = Logger.getLogger("Server");
+        Bukkit.setServer((Server) Proxy.newProxyInstance(Server.class.getClassLoader(), new Class<?>[] { Server.class }, (proxy, method, arguments) -> {
+            if (method.getName().equals("getLogger")) {
+                return logger;
+            } else if (method.getReturnType() == boolean.class) {
+                return false;
+            } else if (method.getReturnType() == int.class) {
+                return 0;
+            }
+
+            return null;
+        }));
+    }
+
+    // Object
+
+    @TempDir
+    @NotNull Path folder;
+
+    private final @NotNull List<SqlAccountStorage> storages = new LinkedList<>();
+
+    protected abstract @NotNull String getUrl(@NotNull Path folder);
+
+    @AfterEach
+    void close() {
+        for (@NotNull SqlAccountStorage storage : storages) {
+            storage.close();
+        }
+    }
+
+    // Tests
+
+    @Test
+    void open() throws IOException {
+        open(true);
+
+        // Opening an existing table must find its nicknames index instead of creating it again
+        open(true);
+    }
+
+    @Test
+    void write() throws IOException {
+        @NotNull SqlAccountStorage storage = open(true);
+        @NotNull UUID uuid = UUID.randomUUID();
+
+        // Insert
+        storage.write(Collections.singleton(account(uuid, "Notch", Type.PREMIUM, "hash", Instant.ofEpochMilli(1000), 5000)));
+
+        @Nullable AccountImpl account = storage.read(uuid);
+        assertNotNull(account);
+        assertEquals("Notch", account.getName());
+        assertEquals(Type.PREMIUM, account.getStoredType());
+        assertArrayEquals("hash".toCharArray(), account.getPassword());
+        assertEquals(Instant.ofEpochMilli(1000), account.getRegistration());
+        assertEquals(Duration.ofMillis(5000), account.getStoredPlayingTime());
+
+        // Update
+        storage.write(Collections.singleton(account(uuid, "Jeb", null, null, null, 7000)));
+
+        account = storage.read(uuid);
+        assertNotNull(account);
+        assertEquals("Jeb", account.getName());
+        assertNull(account.getStoredType());
+        assertNull(account.getPassword());
+        assertNull(account.getRegistration());
+        assertEquals(Duration.ofMillis(7000), account.getStoredPlayingTime());
+
+        assertNull(storage.read("Notch"));
+        assertEquals(1, storage.readAll().size());
+    }
+
+    @Test
+    void read() throws IOException {
+        @NotNull SqlAccountStorage storage = open(true);
+        @NotNull UUID uuid = UUID.randomUUID();
+
+        storage.write(Collections.singleton(account(uuid, "Notch", Type.CRACKED, null, null, 0)));
+
+        @Nullable AccountImpl account = storage.read("notch");
+        assertNotNull(account);
+        assertEquals(uuid, account.getUniqueId());
+        assertEquals("Notch", account.getName());
+
+        assertNull(storage.read(UUID.randomUUID()));
+        assertNull(storage.read("Jeb"));
+    }
+
+    @Test
+    void readCaseSensitive() throws IOException {
+        @NotNull SqlAccountStorage storage = open(false);
+        storage.write(Collections.singleton(account(UUID.randomUUID(), "Notch", null, null, null, 0)));
+
+        assertNotNull(storage.read("Notch"));
+        assertNull(storage.read("notch"));
+    }
+
+    @Test
+    void readAll() throws IOException {
+        @NotNull SqlAccountStorage storage = open(true);
+        @NotNull Map<UUID, String> names = new HashMap<>();
+
+        @NotNull List<AccountImpl> accounts = new ArrayList<>();
+        for (int index = 0; index < 50; index++) {
+            @NotNull UUID uuid = UUID.randomUUID();
+            names.put(uuid, "Player" + index);
+
+            accounts.add(account(uuid, "Player" + index, Type.CRACKED, "hash" + index, Instant.ofEpochMilli(index), index));
+        }
+
+        storage.write(accounts);
+        assertEquals(accounts.size(), storage.readAll().size());
+
+        for (@NotNull AccountImpl account : storage.readAll()) {
+            assertEquals(names.get(account.getUniqueId()), account.getName());
+        }
+    }
+
+    // Utilities
+
+    private @NotNull SqlAccountStorage open(boolean caseFolded) throws IOException {
+        @NotNull String url = getUrl(folder);
+
+        @NotNull SqlAccountStorage storage = new SqlAccountStorage(null, new Configuration.Database.Sql() {
+            @Override
+            public @NotNull String getUrl() {
+                return url;
+            }
+            @Override
+            public @NotNull String getUsername() {
+                return "sa";
+            }
+            @Override
+            public @NotNull String getPassword() {
+                return "";
+            }
+            @Override
+            public @NotNull String getTable() {
+                return TABLE;
+            }
+            @Override
+            public int getPoolSize() {
+                return 2;
+            }
+        }, caseFolded);
+
+        storages.add(storage);
+        storage.open();
+
+        return storage;
+    }
+
+    private static @NotNull AccountImpl account(@NotNull UUID uuid, @NotNull String name, @Nullable Type type, @Nullable String password, @Nullable Instant registration, long playingTime) {
+        // The accounts only use the api when they're modified, so the storage doesn't need one
+        return new AccountImpl(null, name, uuid, false, type, password != null ? password.toCharArray() : null, false, 1, registration, Duration.ofMillis(playingTime));
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.laivyauth.bukkit.impl;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+
+final class SqliteAccountStorageTest extends SqlAccountStorageTest {
+
+    @Override
+    protected @NotNull String getUrl(@NotNull Path folder) {
+        return "jdbc:sqlite:" + folder.resolve("accounts.db").toAbsolutePath();
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.laivyauth.utilities.messages;
+
+import com.laivyauth.utilities.messages.PluginMessages.Placeholder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message parsed once into its literal segments and the placeholders' slots between them.
+ * <p>
+ * The message is rendered in a single pass into a builder with the exact size, instead of searching
+ * and replacing the whole text once per placeholder. The constant placeholders (as the prefix) are
+ * inlined at the compilation, and a message without any other placeholder is rendered as the same
+ * string instance every time.
+ */
+public final class MessageTemplate {
+
+    // Static initializers
+
+    /**
+     * Compiles a message, the placeholders are written as {@code %id%}.
+     *
+     * @param text the message
+     * @param constants the placeholders inlined at the compilation
+     * @return the compiled message
+     */
+    public static @NotNull MessageTemplate compile(@NotNull String text, @NotNull Placeholder @NotNull ... constants) {
+        @NotNull List<String> literals = new ArrayList<>();
+        @NotNull List<String> slots = new ArrayList<>();
+
+        @NotNull StringBuilder literal = new StringBuilder(text.length());
+        int index = 0;
+
+        while (index < text.length()) {
+            int start = text.indexOf('%', index);
+            int end = start != -1 ? text.indexOf('%', start + 1) : -1;
+
+            if (end == -1) {
+                literal.append(text, index, text.length());
+                break;
+            } else if (!isIdentifier(text, start + 1, end)) {
+                // It's just a percent sign, the closing one could open a placeholder
+                literal.append(text, index, end);
+                index = end;
+                continue;
+            }
+
+            literal.append(text, index, start);
+            @NotNull String id = text.substring(start + 1, end);
+            @Nullable Placeholder constant = find(constants, id);
+
+            if (constant != null) {
+                literal.append(constant.getContent());
+            } else {
+                literals.add(literal.toString());
+                slots.add(id);
+
+                literal.setLength(0);
+            }
+
+            index = end + 1;
+        }
+
+        literals.add(literal.toString());
+        return new MessageTemplate(literals.toArray(new String[0]), slots.toArray(new String[0]));
+    }
+
+    // Object
+
+    private final @NotNull String @NotNull [] literals;
+    private final @NotNull String @NotNull [] slots;
+    private final int length;
+
+    private MessageTemplate(@NotNull String @NotNull [] literals, @NotNull String @NotNull [] slots) {
+        this.literals = literals;
+        this.slots = slots;
+
+        int length = 0;
+        for (@NotNull String literal : literals) length += literal.length();
+
+        this.length = length;
+    }
+
+    // Getters
+
+    /**
+     * @return true if the message doesn't have placeholders, it's always rendered as the same string.
+     */
+    public boolean isStatic() {
+        return slots.length == 0;
+    }
+
+    // Modules
+
+    /**
+     * Renders the message. The slots without a placeholder are kept as {@code %id%}, and the
+     * placeholders' contents are never parsed again.
+     *
+     * @param placeholders the placeholders
+     * @return the rendered message
+     */
+    public @NotNull String render(@NotNull Placeholder @NotNull ... placeholders) {
+        if (isStatic()) {
+            return literals[0];
+        }
+
+        // Computes the exact size first
+        int length = this.length;
+
+        for (@NotNull String slot : slots) {
+            @Nullable Placeholder placeholder = find(placeholders, slot);
+            length += placeholder != null ? placeholder.getContent().length() : slot.length() + 2;
+        }
+
+        @NotNull StringBuilder builder = new StringBuilder(length);
+        builder.append(literals[0]);
+
+        for (int index = 0; index < slots.length; index++) {
+            @Nullable Placeholder placeholder = find(placeholders, slots[index]);
+
+            if (placeholder != null) {
+                builder.append(placeholder.getContent());
+            } else {
+                builder.append('%').append(slots[index]).append('%');
+            }
+
+            builder.append(literals[index + 1]);
+        }
+
+        return builder.toString();
+    }
+
+    // Utilities
+
+    private static @Nullable Placeholder find(@NotNull Placeholder @NotNull [] placeholders, @NotNull String id) {
+        for (@NotNull Placeholder placeholder : placeholders) {
+            if (placeholder.getId().equals(id)) {
+                return placeholder;
+            }
+        }
+
+        return null;
+    }
+    private static boolean isIdentifier(@NotNull String text, int start, int end) {
+        if (start == end) {
+            return false;
+        }
+
+        for (int index = start; index < end; index++) {
+            char character = text.charAt(index);
+
+            if (!Character.isLetterOrDigit(character) && character != '_' && character != '-') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Implementations
+
+    @Override
+    public @NotNull String toString() {
+        return render();
+    }
+
+}
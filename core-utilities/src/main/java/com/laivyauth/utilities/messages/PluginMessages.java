@@ -21,6 +21,7 @@ public final class PluginMessages {
     private static final @NotNull Pattern PATTERN = Pattern.compile("&(?!\\s)[0-9a-fk-orA-FK-OR]");
     // todo: locales
     private static final @NotNull Map<String, String> map = new HashMap<>();
+    private static final @NotNull Map<String, MessageTemplate> templates = new HashMap<>();
 
     static {
         try {
@@ -34,6 +35,11 @@ public final class PluginMessages {
 
             // Add to the plugin messages map
             PluginMessages.map.putAll(map);
+
+            // Compile the messages, the prefix is the same for all of them
+            for (@NotNull Map.Entry<String, String> entry : map.entrySet()) {
+                templates.put(entry.getKey(), MessageTemplate.compile(entry.getValue(), Placeholder.PREFIX));
+            }
         } catch (URISyntaxException | IOException e) {
             throw new RuntimeException("cannot load messages files", e);
         }
@@ -61,18 +67,17 @@ public final class PluginMessages {
         }
     }
 
-    public static @NotNull String getMessage(@NotNull String id, @NotNull Placeholder @NotNull ... placeholders) {
-        if (!map.containsKey(id)) {
-            throw new IllegalStateException("there's no message '" + id + "' available");
-        }
+    public static @NotNull MessageTemplate getTemplate(@NotNull String id) {
+        @Nullable MessageTemplate template = templates.get(id);
 
-        @NotNull String text = map.get(id);
-
-        for (@NotNull Placeholder placeholder : placeholders) {
-            text = text.replace("%" + placeholder.getId() + "%", placeholder.getContent());
+        if (template == null) {
+            throw new IllegalStateException("there's no message '" + id + "' available");
         }
 
-        return text;
+        return template;
+    }
+    public static @NotNull String getMessage(@NotNull String id, @NotNull Placeholder @NotNull ... placeholders) {
+        return getTemplate(id).render(placeholders);
     }
 
     // Object
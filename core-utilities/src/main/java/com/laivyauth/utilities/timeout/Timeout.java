@@ -6,22 +6,38 @@ import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
 import java.util.LinkedList;
-import java.util.Objects;
-import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Delayed;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
+/**
+ * A timeout that completes its consumers with a {@link TimeoutException} once its delay elapses, or
+ * with {@code null} if it gets cancelled first. The consumers are called only once, by the first of both.
+ * <p>
+ * The timeouts are scheduled at a hashed timing wheel (see {@link TimeoutWheel}) with a precision
+ * of {@value #TICK_MILLIS} milliseconds, so scheduling and cancelling are O(1) operations regardless
+ * of the number of pending timeouts. The expired timeouts' consumers are called by the
+ * "Timeouts Manager" thread, and the cancelled ones' by the cancelling thread.
+ */
 public final class Timeout implements Delayed {
 
     // Static initializers
 
-    private static final @NotNull Object queueLock = new Object();
-    private static final @NotNull DelayQueue<@NotNull Timeout> queue = new DelayQueue<>();
+    private static final int TICK_MILLIS = 100;
+    private static final int WHEEL_SIZE = 512;
+
+    private static final @NotNull TimeoutWheel wheel = new TimeoutWheel(TICK_MILLIS, TimeUnit.MILLISECONDS, WHEEL_SIZE);
     private static @Nullable TimeoutThread thread;
 
+    private static final int SCHEDULED = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private static final @NotNull AtomicIntegerFieldUpdater<Timeout> STATE = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
     private static synchronized void initialize() {
         thread = new TimeoutThread();
         thread.start();
@@ -41,45 +57,76 @@ public final class Timeout implements Delayed {
         Runtime.getRuntime().addShutdownHook(new Thread(Timeout::interrupt, "Timeouts Shutdown Hook"));
     }
 
+    /**
+     * @return the number of timeouts scheduled that haven't expired or been cancelled yet.
+     */
+    public static long getPending() {
+        return wheel.getPending();
+    }
+
+    /**
+     * @return the total number of expired timeouts.
+     */
+    public static long getExpirations() {
+        return wheel.getExpirations();
+    }
+
+    /**
+     * @return the total number of cancelled timeouts.
+     */
+    public static long getCancellations() {
+        return wheel.getCancellations();
+    }
+
     // Object
 
     private final @NotNull LinkedList<@NotNull Consumer<@Nullable TimeoutException>> consumers = new LinkedList<>();
     private final @NotNull ReentrantLock reentrant = new ReentrantLock();
 
-    private final long executionTime;
-    private volatile boolean cancelled = false;
+    private volatile int state = SCHEDULED;
 
-    public Timeout(@NotNull Duration delay) {
-        this.executionTime = System.currentTimeMillis() + delay.toMillis();
+    // Wheel, only accessed by the wheel thread
+    final long deadline;
+    long rounds;
 
-        if (!queue.offer(this)) {
-            throw new IllegalStateException("cannot offer timeout to queue");
-        }
+    @Nullable TimeoutWheel.Bucket bucket;
+    @Nullable Timeout previous;
+    @Nullable Timeout next;
+
+    public Timeout(@NotNull Duration delay) {
+        this.deadline = wheel.getTime() + delay.toNanos();
+        wheel.schedule(this);
     }
 
     // Getters
 
     @Override
-    public long getDelay(TimeUnit unit) {
-        return unit.convert(executionTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    public long getDelay(@NotNull TimeUnit unit) {
+        return unit.convert(deadline - wheel.getTime(), TimeUnit.NANOSECONDS);
     }
 
     public @NotNull Duration getRemaining() {
-        return Duration.ofMillis(executionTime - System.currentTimeMillis());
+        return Duration.ofNanos(deadline - wheel.getTime());
     }
 
-    public void cancel() {
-        reentrant.lock();
-
-        try {
-            this.cancelled = true;
+    /**
+     * @return true if this timeout has expired or has been cancelled.
+     */
+    public boolean isDone() {
+        return state != SCHEDULED;
+    }
 
-            for (@NotNull Consumer<@Nullable TimeoutException> consumer : consumers) {
-                consumer.accept(null);
-            }
-        } finally {
-            reentrant.unlock();
+    /**
+     * Cancels this timeout, calling the consumers with {@code null}. It's removed from the
+     * scheduler at the next tick, and nothing happens if it has already expired or been cancelled.
+     */
+    public void cancel() {
+        if (!STATE.compareAndSet(this, SCHEDULED, CANCELLED)) {
+            return;
         }
+
+        wheel.cancel(this);
+        complete(null);
     }
 
     @Contract(value = "_->this", pure = true)
@@ -97,29 +144,46 @@ public final class Timeout implements Delayed {
 
     // Modules
 
-    @Override
-    public int compareTo(@NotNull Delayed delayed) {
-        return Long.compare(this.executionTime, delayed.getDelay(TimeUnit.MILLISECONDS));
-    }
+    /**
+     * Called by the wheel thread when the deadline is reached.
+     *
+     * @return true if this timeout has expired, or false if it has been cancelled first.
+     */
+    boolean expire() {
+        if (!STATE.compareAndSet(this, SCHEDULED, EXPIRED)) {
+            return false;
+        }
 
-    // Implementations
+        complete(new TimeoutException());
+        return true;
+    }
 
-    @Override
-    public boolean equals(Object object) {
-        if (this == object) return true;
-        if (!(object instanceof Timeout)) return false;
-        @NotNull Timeout that = (Timeout) object;
+    private void complete(@Nullable TimeoutException exception) {
+        reentrant.lock();
 
-        return cancelled == that.cancelled && Objects.equals(executionTime, that.executionTime);
+        try {
+            for (@NotNull Consumer<@Nullable TimeoutException> consumer : consumers) {
+                consumer.accept(exception);
+            }
+        } finally {
+            reentrant.unlock();
+        }
     }
+
     @Override
-    public int hashCode() {
-        return Objects.hash(executionTime, cancelled);
+    public int compareTo(@NotNull Delayed delayed) {
+        if (delayed instanceof Timeout) {
+            return Long.compare(deadline, ((Timeout) delayed).deadline);
+        } else {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), delayed.getDelay(TimeUnit.NANOSECONDS));
+        }
     }
 
+    // Implementations
+
     @Override
     public @NotNull String toString() {
-        return "Timeout{" + "delay=" + executionTime + '}';
+        return "Timeout{" + "remaining=" + getRemaining().toMillis() + "ms, done=" + isDone() + '}';
     }
 
     // Classes
@@ -158,21 +222,8 @@ public final class Timeout implements Delayed {
         public void run() {
             while (isRunning()) {
                 try {
-                    // Retrieve expired timeout
-                    @NotNull Timeout task = queue.take();
-
-                    // Start executing
-                    task.reentrant.lock();
-
-                    try {
-                        for (@NotNull Consumer<@Nullable TimeoutException> consumer : task.consumers) {
-                            consumer.accept(new TimeoutException());
-                        }
-                    } finally {
-                        task.reentrant.unlock();
-                    }
+                    wheel.advance();
                 } catch (@NotNull InterruptedException e) {
-                    // todo: interrupted exception
                     break;
                 }
             }
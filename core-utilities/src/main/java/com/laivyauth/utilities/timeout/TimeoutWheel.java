@@ -0,0 +1,236 @@
+package com.laivyauth.utilities.timeout;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A hashed timing wheel, the scheduler of the {@link Timeout} instances.
+ * <p>
+ * The wheel is an array of buckets, each one is a doubly linked list of timeouts, and a single
+ * thread advances it one bucket per tick, expiring the timeouts of the current bucket. The timeouts
+ * further than a whole wheel turn have a number of remaining rounds, decreased each time the bucket
+ * is visited.
+ * <p>
+ * The scheduling and the cancellation threads never touch the buckets: they're O(1) lock-free queue
+ * offers, and the wheel thread moves the timeouts into (or out of) the buckets at the beginning of
+ * each tick. So a cancelled timeout is unlinked (and collectable) at the next tick, instead of staying
+ * at the scheduler until its deadline. The expirations have the tick duration as precision.
+ */
+final class TimeoutWheel {
+
+    // Static initializers
+
+    /**
+     * The maximum number of new timeouts moved into the buckets per tick, it prevents a flood of
+     * scheduled timeouts to delay the expiration of the current bucket.
+     */
+    private static final int MAXIMUM_TRANSFERS_PER_TICK = 100_000;
+
+    // Object
+
+    private final long tick;
+    private final int mask;
+    private final @NotNull Bucket @NotNull [] buckets;
+
+    private final @NotNull Queue<@NotNull Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final @NotNull Queue<@NotNull Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    private final long start = System.nanoTime();
+    private long ticks = 0; // Only accessed by the wheel thread
+
+    // Metrics
+    private final @NotNull AtomicLong pending = new AtomicLong();
+    private final @NotNull LongAdder expirations = new LongAdder();
+    private final @NotNull LongAdder cancellations = new LongAdder();
+
+    /**
+     * Constructor for TimeoutWheel.
+     *
+     * @param tick the duration of each tick, it's the precision of the expirations
+     * @param unit the unit of the tick duration
+     * @param size the number of buckets, it will be rounded up to a power of two
+     */
+    TimeoutWheel(long tick, @NotNull TimeUnit unit, int size) {
+        if (tick <= 0) {
+            throw new IllegalArgumentException("the timeout wheel tick must be positive");
+        } else if (size < 1 || size > (1 << 30)) {
+            throw new IllegalArgumentException("the timeout wheel size must be between 1 and 2^30");
+        }
+
+        int buckets = Integer.highestOneBit(size);
+        if (buckets < size) buckets <<= 1;
+
+        this.tick = unit.toNanos(tick);
+        this.mask = buckets - 1;
+        this.buckets = new Bucket[buckets];
+
+        for (int index = 0; index < buckets; index++) {
+            this.buckets[index] = new Bucket();
+        }
+    }
+
+    // Getters
+
+    /**
+     * @return the nanoseconds elapsed since the wheel creation, the time base of the timeouts' deadlines.
+     */
+    long getTime() {
+        return System.nanoTime() - start;
+    }
+
+    long getPending() {
+        return pending.get();
+    }
+    long getExpirations() {
+        return expirations.sum();
+    }
+    long getCancellations() {
+        return cancellations.sum();
+    }
+
+    // Modules
+
+    void schedule(@NotNull Timeout timeout) {
+        pending.incrementAndGet();
+        scheduled.offer(timeout);
+    }
+    void cancel(@NotNull Timeout timeout) {
+        pending.decrementAndGet();
+        cancellations.increment();
+
+        cancelled.offer(timeout);
+    }
+
+    /**
+     * Waits for the next tick and advances the wheel. Must be called only by the wheel thread.
+     *
+     * @throws InterruptedException if the wheel thread gets interrupted while waiting
+     */
+    void advance() throws InterruptedException {
+        long deadline = waitNextTick();
+        @NotNull Bucket bucket = buckets[(int) (ticks & mask)];
+
+        unlinkCancelled();
+        transferScheduled();
+        bucket.expire(deadline);
+
+        ticks++;
+    }
+
+    private long waitNextTick() throws InterruptedException {
+        long deadline = tick * (ticks + 1);
+
+        while (true) {
+            long current = getTime();
+            long sleep = TimeUnit.NANOSECONDS.toMillis(deadline - current + 999_999);
+
+            if (sleep <= 0) {
+                return current;
+            }
+
+            Thread.sleep(sleep);
+        }
+    }
+
+    private void unlinkCancelled() {
+        @Nullable Timeout timeout;
+
+        while ((timeout = cancelled.poll()) != null) {
+            // The timeout could be cancelled before being transferred to a bucket
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+    private void transferScheduled() {
+        for (int index = 0; index < MAXIMUM_TRANSFERS_PER_TICK; index++) {
+            @Nullable Timeout timeout = scheduled.poll();
+
+            if (timeout == null) {
+                break;
+            } else if (timeout.isDone()) {
+                continue;
+            }
+
+            long target = timeout.deadline / tick;
+            timeout.rounds = (target - ticks) / buckets.length;
+
+            // The timeouts already overdue are expired at the current tick
+            buckets[(int) (Math.max(target, ticks) & mask)].add(timeout);
+        }
+    }
+
+    // Classes
+
+    final class Bucket {
+
+        private @Nullable Timeout head;
+        private @Nullable Timeout tail;
+
+        private void add(@NotNull Timeout timeout) {
+            timeout.bucket = this;
+
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                //noinspection DataFlowIssue
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+        private @Nullable Timeout remove(@NotNull Timeout timeout) {
+            @Nullable Timeout next = timeout.next;
+
+            if (timeout.previous != null) timeout.previous.next = next;
+            if (next != null) next.previous = timeout.previous;
+
+            if (timeout == head) head = next;
+            if (timeout == tail) tail = timeout.previous;
+
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+
+            return next;
+        }
+
+        private void expire(long deadline) {
+            @Nullable Timeout timeout = head;
+
+            while (timeout != null) {
+                if (timeout.isDone()) {
+                    timeout = remove(timeout);
+                } else if (timeout.rounds <= 0 && timeout.deadline <= deadline) {
+                    @NotNull Timeout expired = timeout;
+                    timeout = remove(timeout);
+
+                    try {
+                        if (expired.expire()) {
+                            pending.decrementAndGet();
+                            expirations.increment();
+                        }
+                    } catch (@NotNull Throwable throwable) {
+                        // A failing consumer must not stop the other timeouts from expiring
+                        pending.decrementAndGet();
+                        expirations.increment();
+
+                        @NotNull Thread thread = Thread.currentThread();
+                        thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+                    }
+                } else {
+                    timeout.rounds--;
+                    timeout = timeout.next;
+                }
+            }
+        }
+
+    }
+
+}
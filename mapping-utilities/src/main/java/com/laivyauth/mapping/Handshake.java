@@ -3,45 +3,47 @@ package com.laivyauth.mapping;
 import codes.laivy.address.Address;
 import codes.laivy.address.port.Port;
 import com.laivyauth.api.platform.Protocol;
-import com.laivyauth.utilities.timeout.Timeout;
 import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.time.Duration;
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 public final class Handshake {
 
     // Static initializers
 
-    private static final @NotNull Object lock = new Object();
-    private static final @NotNull Map<Channel, Handshake> handshakes = new LinkedHashMap<>();
+    /**
+     * The handshake of each login channel, it's stored at the channel itself so the per-packet
+     * lookups don't need any global map or lock, and it's discarded together with the channel.
+     */
+    private static final @NotNull AttributeKey<Handshake> HANDSHAKE = AttributeKey.valueOf("laivyauth:handshake");
 
     public static @NotNull Optional<Handshake> getAndRemove(@NotNull Channel channel) {
-        synchronized (lock) {
-            @NotNull Optional<Handshake> optional = Optional.ofNullable(handshakes.getOrDefault(channel, null));
-            optional.ifPresent(handshake -> handshake.timeout.cancel());
+        @Nullable Handshake handshake = channel.attr(HANDSHAKE).getAndSet(null);
+        if (handshake != null) handshake.timeout.cancel(false);
 
-            return optional;
-        }
+        return Optional.ofNullable(handshake);
     }
     public static @NotNull Handshake create(@NotNull Channel channel, @NotNull Protocol protocol, @NotNull Address address, @NotNull Port port) {
         @NotNull Handshake handshake = new Handshake(channel, protocol, address, port);
 
-        synchronized (lock) {
-            handshakes.put(channel, handshake);
-        }
+        @Nullable Handshake previous = channel.attr(HANDSHAKE).getAndSet(handshake);
+        if (previous != null) previous.timeout.cancel(false);
+
+        // Don't keep the channel referenced by the timeout task after it closes
+        channel.closeFuture().addListener((future) -> handshake.timeout.cancel(false));
 
         return handshake;
     }
 
     // Object
 
-    private final @NotNull Timeout timeout;
+    private final @NotNull ScheduledFuture<?> timeout;
 
     private final @NotNull Protocol protocol;
     private final @NotNull Address address;
@@ -52,12 +54,8 @@ public final class Handshake {
         this.address = address;
         this.port = port;
 
-        // Generate timeout
-        this.timeout = new Timeout(Duration.ofSeconds(15)).whenComplete((e) -> {
-            synchronized (lock) {
-                handshakes.remove(channel);
-            }
-        });
+        // Generate timeout, it's scheduled at the channel's own event loop
+        this.timeout = channel.eventLoop().schedule(() -> channel.attr(HANDSHAKE).compareAndSet(this, null), 15, TimeUnit.SECONDS);
     }
 
     // Getters
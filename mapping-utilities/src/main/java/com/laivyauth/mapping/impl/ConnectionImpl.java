@@ -6,8 +6,8 @@ import com.laivyauth.api.LaivyAuthApi;
 import com.laivyauth.api.account.Account;
 import com.laivyauth.api.platform.Protocol;
 import com.laivyauth.mapping.Handshake;
-import com.laivyauth.utilities.timeout.Timeout;
 import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -15,6 +15,9 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import static com.laivyauth.api.account.Account.Type;
 import static com.laivyauth.api.mapping.Mapping.Connection;
@@ -23,41 +26,67 @@ public final class ConnectionImpl implements Connection, Flushable {
 
     // Static initializers
 
-    private static final @NotNull Object lock = new Object();
-    private static final @NotNull Map<Channel, ConnectionImpl> connections = new LinkedHashMap<>();
+    /**
+     * The connection of each login channel, it's stored at the channel itself so the per-packet
+     * lookups don't need any global map or lock.
+     */
+    private static final @NotNull AttributeKey<ConnectionImpl> CONNECTION = AttributeKey.valueOf("laivyauth:connection");
+
+    /**
+     * The connections that could be resumed by a reconnecting player, by normalized nickname.
+     */
+    private static final @NotNull Reconnections reconnections = new Reconnections(16384);
 
     public static @NotNull Collection<ConnectionImpl> retrieve() {
-        return connections.values();
+        return reconnections.values();
     }
     public static @NotNull Optional<ConnectionImpl> retrieve(@NotNull Channel channel) {
-        return Optional.ofNullable(connections.getOrDefault(channel, null));
+        return Optional.ofNullable(channel.attr(CONNECTION).get());
     }
-    public static @NotNull Optional<ConnectionImpl> retrieve(@NotNull String name) {
-        return connections.values().stream().filter(conn -> conn.getName().equals(name)).findFirst();
+
+    /**
+     * Retrieves the connection that could be resumed by a player with this nickname. When the nicknames
+     * are case-folded, the connection nickname could differ in case from the requested one, and the
+     * caller must check it.
+     */
+    public static @NotNull Optional<ConnectionImpl> retrieve(@NotNull LaivyAuthApi api, @NotNull String name) {
+        return Optional.ofNullable(reconnections.get(key(api, name)));
     }
 
     public static @NotNull ConnectionImpl create(@NotNull LaivyAuthApi api, @NotNull Channel channel, @NotNull Handshake handshake, @NotNull String name) {
         @NotNull ConnectionImpl connection = new ConnectionImpl(api, channel, handshake, name);
 
-        synchronized (lock) {
-            connections.put(channel, connection);
+        @Nullable ConnectionImpl previous = reconnections.put(connection);
+
+        // The replaced connection could still be at the middle of the login at its channel, it's
+        // detached from the channel and released for good, so it can never hold the account again
+        if (previous != null) {
+            previous.timeout.cancel(false);
+            previous.release();
         }
 
+        channel.attr(CONNECTION).set(connection);
+
         return connection;
     }
 
+    private static @NotNull String key(@NotNull LaivyAuthApi api, @NotNull String name) {
+        return api.getConfiguration().isCaseSensitiveNicknames() ? name.toLowerCase(Locale.ROOT) : name;
+    }
+
     // Object
 
     private final @NotNull LaivyAuthApi api;
 
     private volatile @NotNull Channel channel;
-    private final @NotNull Timeout timeout;
+    private volatile @NotNull ScheduledFuture<?> timeout;
 
     private final @NotNull Address address;
     private final @NotNull Port port;
     private final @NotNull Protocol protocol;
 
     private final @NotNull String name;
+    private final @NotNull String key;
 
     private volatile @NotNull State state = State.HANDSHAKE;
 
@@ -68,6 +97,14 @@ public final class ConnectionImpl implements Connection, Flushable {
 
     private volatile @Nullable Reconnection reconnection;
 
+    /**
+     * The unique id of the account held by this connection, so it's never unloaded while connecting.
+     *
+     * @see LaivyAuthApi#hold(UUID)
+     */
+    private @Nullable UUID held;
+    private boolean released = false;
+
     private volatile boolean pending = false;
 
     private ConnectionImpl(@NotNull LaivyAuthApi api, @NotNull Channel channel, @NotNull Handshake handshake, @NotNull String name) {
@@ -79,13 +116,10 @@ public final class ConnectionImpl implements Connection, Flushable {
         this.protocol = handshake.getProtocol();
 
         this.name = name;
+        this.key = key(api, name);
 
-        // Timeout
-        this.timeout = new Timeout(api.getConfiguration().getPremiumAuthentication().getReconnectTimeout()).whenComplete((e) -> {
-            synchronized (lock) {
-                connections.remove(channel);
-            }
-        });
+        // Timeout, it's scheduled at the channel's own event loop
+        this.timeout = channel.eventLoop().schedule(this::expire, api.getConfiguration().getPremiumAuthentication().getReconnectTimeout().toMillis(), TimeUnit.MILLISECONDS);
     }
 
     // Getters
@@ -95,14 +129,19 @@ public final class ConnectionImpl implements Connection, Flushable {
         return channel;
     }
     public void setChannel(@NotNull Channel channel) {
-        synchronized (lock) {
-            // Remove old
-            connections.remove(this.channel);
+        // Remove old
+        this.channel.attr(CONNECTION).compareAndSet(this, null);
 
-            // Perform change
-            this.channel = channel;
-            connections.put(channel, this);
-        }
+        // Perform change
+        this.channel = channel;
+        channel.attr(CONNECTION).set(this);
+
+        // Move the remaining timeout to the new channel's event loop. If it has
+        // already expired, the connection is removed again right away.
+        @NotNull ScheduledFuture<?> previous = this.timeout;
+        previous.cancel(false);
+
+        this.timeout = channel.eventLoop().schedule(this::expire, Math.max(previous.getDelay(TimeUnit.MILLISECONDS), 0), TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -118,6 +157,9 @@ public final class ConnectionImpl implements Connection, Flushable {
     public @NotNull String getName() {
         return name;
     }
+    @NotNull String getKey() {
+        return key;
+    }
 
     @Override
     public @Nullable UUID getUniqueId() {
@@ -125,6 +167,7 @@ public final class ConnectionImpl implements Connection, Flushable {
     }
     public void setUniqueId(@NotNull UUID uuid) {
         this.uuid = uuid;
+        hold(uuid);
     }
 
     @Override
@@ -137,7 +180,10 @@ public final class ConnectionImpl implements Connection, Flushable {
         return account;
     }
     public void setAccount(@NotNull Account account) {
-        this.account = account;
+        hold(account.getUniqueId());
+
+        // Once held it cannot be unloaded anymore, but it could have been unloaded just before
+        this.account = api.getAccount(account.getUniqueId()).orElse(account);
         this.type = account.getType();
         this.uuid = account.getUniqueId();
     }
@@ -177,7 +223,45 @@ public final class ConnectionImpl implements Connection, Flushable {
 
     @Override
     public void flush() throws IOException {
-        timeout.cancel();
+        timeout.cancel(false);
+        expire();
+    }
+
+    private void expire() {
+        reconnections.remove(this);
+        release();
+    }
+    private void release() {
+        channel.attr(CONNECTION).compareAndSet(this, null);
+
+        synchronized (this) {
+            released = true;
+        }
+
+        // A successful login keeps holding the account until the player disconnects, the
+        // server only keeps it (as an online player's account) after the join.
+        if (state == State.SUCCESS) {
+            channel.closeFuture().addListener((future) -> hold(null));
+        } else {
+            hold(null);
+        }
+    }
+
+    /**
+     * Changes the account held by this connection, releasing the previous one. After the connection
+     * has been released, it never holds an account again.
+     *
+     * @param uuid the account's unique id, or null to only release the current one
+     */
+    private synchronized void hold(@Nullable UUID uuid) {
+        if (Objects.equals(held, uuid) || (uuid != null && released)) {
+            return;
+        } else if (uuid != null) {
+            api.hold(uuid);
+        }
+
+        if (held != null) api.release(held);
+        held = uuid;
     }
 
     // Implementations
@@ -0,0 +1,95 @@
+package com.laivyauth.mapping.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The registry of the connections that could be resumed by a new channel (the premium verification
+ * reconnections and the interrupted logins), indexed by the normalized nickname.
+ * <p>
+ * The lookups are O(1) and lock-free. The entries leave the registry when the connection is flushed
+ * or its reconnect timeout expires, and the registry is bounded: when it's full, the oldest connections
+ * are evicted first, so a flood of unique nicknames cannot exhaust the heap. An evicted player just
+ * starts a new connection at the next login.
+ */
+final class Reconnections {
+
+    // Object
+
+    private final int capacity;
+
+    private final @NotNull Map<String, ConnectionImpl> connections = new ConcurrentHashMap<>();
+    private final @NotNull Queue<ConnectionImpl> order = new ConcurrentLinkedQueue<>();
+    private final @NotNull AtomicLong puts = new AtomicLong();
+
+    Reconnections(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("the reconnections capacity must be positive");
+        }
+
+        this.capacity = capacity;
+    }
+
+    // Getters
+
+    @NotNull Collection<ConnectionImpl> values() {
+        return Collections.unmodifiableCollection(connections.values());
+    }
+
+    @Nullable ConnectionImpl get(@NotNull String key) {
+        return connections.get(key);
+    }
+
+    int size() {
+        return connections.size();
+    }
+
+    // Modules
+
+    /**
+     * Registers the connection, replacing any other connection with the same key.
+     *
+     * @return the replaced connection, or null if there was none
+     */
+    @Nullable ConnectionImpl put(@NotNull ConnectionImpl connection) {
+        @Nullable ConnectionImpl previous = connections.put(connection.getKey(), connection);
+        order.offer(connection);
+
+        // Discard the removed connections at the head, they're removed nearly in insertion
+        // order since all of them have the same timeout. The flushed ones could be anywhere,
+        // so the whole queue is swept once in a while to keep it proportional to the registry.
+        @Nullable ConnectionImpl eldest;
+
+        while ((eldest = order.peek()) != null && !contains(eldest)) {
+            order.remove(eldest);
+        }
+
+        if (puts.incrementAndGet() % capacity == 0) {
+            order.removeIf((queued) -> !contains(queued));
+        }
+
+        // Evict the oldest connections
+        while (connections.size() > capacity && (eldest = order.poll()) != null) {
+            connections.remove(eldest.getKey(), eldest);
+        }
+
+        return previous;
+    }
+
+    void remove(@NotNull ConnectionImpl connection) {
+        connections.remove(connection.getKey(), connection);
+    }
+
+    private boolean contains(@NotNull ConnectionImpl connection) {
+        return connections.get(connection.getKey()) == connection;
+    }
+
+}
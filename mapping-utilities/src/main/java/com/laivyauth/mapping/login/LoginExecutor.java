@@ -0,0 +1,150 @@
+package com.laivyauth.mapping.login;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class completes the players' logins (saving the account and firing the pre-login events) outside
+ * the netty's event loops. The pre-login events are called synchronously, and the plugins listening to
+ * them are free to block, so it cannot be done at the network threads.
+ * <p>
+ * The logins are executed by virtual threads when the server is running on Java 21 or newer, or by
+ * daemon platform threads otherwise. Both ways, the number of logins being completed at the same time
+ * is bounded, and so is the number of logins waiting. When the executor is saturated the login is
+ * rejected, and the caller must disconnect the player instead of queueing it forever.
+ */
+public final class LoginExecutor implements Closeable {
+
+    // Static initializers
+
+    private static final @NotNull Logger log = LoggerFactory.getLogger(LoginExecutor.class);
+    private static final int QUEUE_SIZE_PER_THREAD = 32;
+
+    /**
+     * Creates a virtual threads factory using reflections, since this module targets Java 8.
+     *
+     * @return the factory, or null if the virtual threads aren't available at the current runtime.
+     */
+    private static @Nullable ThreadFactory createVirtualThreadFactory(@NotNull String name) {
+        try {
+            @NotNull Class<?> type = Class.forName("java.lang.Thread$Builder");
+            @NotNull Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+
+            builder = type.getMethod("name", String.class, long.class).invoke(builder, name, 1L);
+            return (ThreadFactory) type.getMethod("factory").invoke(builder);
+        } catch (@NotNull ClassNotFoundException | @NotNull NoSuchMethodException e) {
+            return null; // Older than Java 21
+        } catch (@NotNull IllegalAccessException | @NotNull InvocationTargetException e) {
+            log.atDebug().setCause(e).log("Cannot create virtual threads, falling back to platform threads");
+            return null;
+        }
+    }
+
+    // Object
+
+    private final @NotNull ThreadPoolExecutor executor;
+    private final boolean virtual;
+
+    private final @NotNull LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructor for LoginExecutor.
+     *
+     * @param threads the maximum number of logins being completed at the same time.
+     */
+    public LoginExecutor(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("the login executor must have at least one thread");
+        }
+
+        @Nullable ThreadFactory factory = createVirtualThreadFactory("User Authentication #");
+        this.virtual = factory != null;
+
+        if (factory == null) {
+            @NotNull AtomicInteger count = new AtomicInteger(0);
+
+            factory = (runnable) -> {
+                @NotNull Thread thread = new Thread(runnable, "User Authentication #" + count.incrementAndGet());
+                thread.setDaemon(true);
+
+                return thread;
+            };
+        }
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads * QUEUE_SIZE_PER_THREAD), factory);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    // Getters
+
+    /**
+     * @return true if the logins are completed by virtual threads.
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * @return the number of logins waiting for a free thread.
+     */
+    public int getPending() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return the number of logins being completed at this moment.
+     */
+    public int getActive() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return the total number of logins rejected because the executor was saturated.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    // Modules
+
+    /**
+     * Submits a login completion to be executed outside the caller thread.
+     *
+     * @param name the nickname of the player, used to log failures
+     * @param task the login completion
+     * @return true if the login has been accepted, or false if it was rejected and the player must be disconnected.
+     */
+    public boolean execute(@NotNull String name, @NotNull Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (@NotNull Throwable throwable) {
+                    log.error("Cannot complete the login of '{}': {}", name, throwable.getMessage());
+                    log.atDebug().setCause(throwable).log();
+                }
+            });
+
+            return true;
+        } catch (@NotNull RejectedExecutionException e) {
+            rejected.increment();
+            return false;
+        }
+    }
+
+    // Loaders
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,202 @@
+package com.laivyauth.mapping.netty;
+
+import com.laivyauth.api.config.Configuration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class decides if a new connection is admitted, before the server allocates anything for it.
+ * <p>
+ * The connections are rate limited by token buckets per address, per subnet (the /24 for IPv4 and
+ * the /48 for IPv6) and globally. Each bucket is a single atomic timestamp (the time it will be full
+ * again, as the generic cell rate algorithm), so an admission is lock-free and doesn't allocate
+ * anything other than the buckets of new addresses. The buckets that are full again are swept once in
+ * a while, and there's a maximum number of buckets, so a flood of unique addresses cannot exhaust the heap.
+ */
+public final class AdmissionControl {
+
+    // Static initializers
+
+    private static final int SWEEP_INTERVAL = 4096;
+    private static final int MAXIMUM_BUCKETS = 65536;
+
+    /**
+     * Acquires a token from the bucket.
+     *
+     * @return true if the token has been acquired, or false if the bucket is empty.
+     */
+    private static boolean acquire(@NotNull AtomicLong bucket, long now, long interval, long tolerance) {
+        long full;
+        long next;
+
+        do {
+            full = bucket.get();
+            long start = Math.max(full, now);
+
+            if (start - now > tolerance) {
+                return false;
+            }
+
+            next = start + interval;
+        } while (!bucket.compareAndSet(full, next));
+
+        return true;
+    }
+
+    // Object
+
+    private final @Nullable Limiter<InetAddress> address;
+    private final @Nullable Limiter<Long> subnet;
+    private final @Nullable Limiter<Object> global;
+
+    private final @NotNull LongAdder accepted = new LongAdder();
+    private final @NotNull LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructor for AdmissionControl.
+     *
+     * @param configuration the limits of the new connections.
+     */
+    public AdmissionControl(@NotNull Configuration.Admission configuration) {
+        this.address = Limiter.create(configuration.getAddress());
+        this.subnet = Limiter.create(configuration.getSubnet());
+        this.global = Limiter.create(configuration.getGlobal());
+    }
+
+    // Getters
+
+    /**
+     * @return the total number of connections admitted.
+     */
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    /**
+     * @return the total number of connections rejected because a limit was exceeded.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    // Modules
+
+    /**
+     * Checks if a new connection is admitted, consuming the tokens of its buckets.
+     *
+     * @param remote the remote address of the connection
+     * @return true if the connection is admitted, or false if it must be closed.
+     */
+    public boolean admit(@Nullable SocketAddress remote) {
+        long now = System.nanoTime();
+
+        // The per address and subnet buckets are checked first, so a single
+        // address flooding the server doesn't consume the global tokens
+        if (remote instanceof InetSocketAddress && ((InetSocketAddress) remote).getAddress() != null) {
+            @NotNull InetAddress inet = ((InetSocketAddress) remote).getAddress();
+
+            if (address != null && !address.acquire(inet, now)) {
+                rejected.increment();
+                return false;
+            } else if (subnet != null && !subnet.acquire(subnet(inet), now)) {
+                rejected.increment();
+                return false;
+            }
+        }
+
+        if (global != null && !global.acquire(Limiter.GLOBAL, now)) {
+            rejected.increment();
+            return false;
+        }
+
+        accepted.increment();
+        return true;
+    }
+
+    // Utilities
+
+    private static @NotNull Long subnet(@NotNull InetAddress address) {
+        byte @NotNull [] bytes = address.getAddress();
+
+        if (address instanceof Inet4Address) {
+            // The /24 prefix
+            return ((bytes[0] & 0xFFL) << 16) | ((bytes[1] & 0xFFL) << 8) | (bytes[2] & 0xFFL);
+        } else {
+            // The /48 prefix, tagged to never collide with the IPv4 ones
+            long prefix = 1L << 48;
+            for (int index = 0; index < 6; index++) prefix |= (bytes[index] & 0xFFL) << (40 - (index * 8));
+
+            return prefix;
+        }
+    }
+
+    // Classes
+
+    /**
+     * The token buckets of a limit, by key.
+     */
+    private static final class Limiter<K> {
+
+        // Static initializers
+
+        private static final @NotNull Object GLOBAL = new Object();
+
+        public static <K> @Nullable Limiter<K> create(@NotNull Configuration.Admission.Limit limit) {
+            if (limit.getRate() <= 0) {
+                return null;
+            }
+
+            long interval = Math.max((long) (TimeUnit.SECONDS.toNanos(1) / limit.getRate()), 1L);
+            return new Limiter<>(interval, interval * (limit.getBurst() - 1));
+        }
+
+        // Object
+
+        private final long interval;
+        private final long tolerance;
+
+        private final @NotNull Map<K, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final @NotNull AtomicLong created = new AtomicLong();
+
+        private Limiter(long interval, long tolerance) {
+            this.interval = interval;
+            this.tolerance = tolerance;
+        }
+
+        // Modules
+
+        public boolean acquire(@NotNull K key, long now) {
+            @Nullable AtomicLong bucket = buckets.get(key);
+
+            if (bucket == null) {
+                // Remove the buckets that are full again, they're the same as a new one
+                if (created.incrementAndGet() % SWEEP_INTERVAL == 0) {
+                    buckets.values().removeIf((full) -> full.get() <= now);
+                }
+
+                // All the buckets are in use, the other limits still apply
+                if (buckets.size() >= MAXIMUM_BUCKETS) {
+                    return true;
+                }
+
+                @NotNull AtomicLong fresh = new AtomicLong(now);
+                bucket = buckets.putIfAbsent(key, fresh);
+                if (bucket == null) bucket = fresh;
+            }
+
+            return AdmissionControl.acquire(bucket, now, interval, tolerance);
+        }
+
+    }
+
+}
@@ -1,6 +1,8 @@
 package com.laivyauth.mapping.netty;
 
+import com.laivyauth.api.config.Configuration;
 import io.netty.channel.*;
+import io.netty.util.ReferenceCountUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnknownNullability;
@@ -34,16 +36,29 @@ public abstract class NettyInjection implements Flushable {
     private final @NotNull Map<@NotNull Channel, @NotNull ChannelHandler> handlers = new HashMap<>();
 
     private final @NotNull Channel channel;
+    private final @Nullable AdmissionControl admission;
 
     // Constructors
 
     /**
-     * Constructor for NettyInjection.
+     * Constructor for NettyInjection, without limiting the new connections.
      *
      * @param channel the channel to be injected.
      */
     protected NettyInjection(@NotNull Channel channel) {
+        this(channel, null);
+    }
+
+    /**
+     * Constructor for NettyInjection.
+     *
+     * @param channel the channel to be injected.
+     * @param admission the limits of the new connections, or null if they aren't limited.
+     */
+    protected NettyInjection(@NotNull Channel channel, @Nullable Configuration.Admission admission) {
         this.channel = channel;
+        this.admission = admission != null && admission.isEnabled() ? new AdmissionControl(admission) : null;
+
         channel.pipeline().addFirst(new ChannelAcceptanceHandler());
     }
 
@@ -58,6 +73,15 @@ public abstract class NettyInjection implements Flushable {
         return channel;
     }
 
+    /**
+     * Gets the admission control of the new connections, with the accepted and rejected counters.
+     *
+     * @return the admission control, or null if the new connections aren't limited.
+     */
+    public final @Nullable AdmissionControl getAdmission() {
+        return admission;
+    }
+
     // Modules
 
     /**
@@ -74,6 +98,33 @@ public abstract class NettyInjection implements Flushable {
         }
     }
 
+    /**
+     * Replaces the channel's injection with the play gate, after the player's login. The play packets blocked
+     * by the gate are dropped until the player authenticates, and then the channel is ejected.
+     * The received and sent packets aren't monitored by {@link #read} and {@link #write} anymore.
+     *
+     * @param channel the channel to be gated.
+     * @param uuid the unique id of the player's account.
+     * @param gate the packets blocked while the player isn't authenticated.
+     */
+    public final void play(@NotNull Channel channel, @NotNull UUID uuid, @NotNull PlayGate gate) {
+        synchronized (lock) {
+            @Nullable ChannelHandler handler = handlers.get(channel);
+            if (handler == null) return;
+
+            // Authenticated already, there's nothing to gate
+            if (gate.isAuthenticated(uuid)) {
+                eject(channel);
+                return;
+            }
+
+            @NotNull ChannelHandler replacement = new ChannelGateHandler(uuid, gate);
+
+            channel.pipeline().replace(handler, "laivy_auth_gate", replacement);
+            handlers.put(channel, replacement);
+        }
+    }
+
     /**
      * Ejects a channel from injection and stops monitoring its sent and received packets.
      *
@@ -179,6 +230,12 @@ public abstract class NettyInjection implements Flushable {
             if (message instanceof Channel) {
                 @NotNull Channel channel = (Channel) message;
 
+                // Reject the connection before it's registered, so the server doesn't allocate anything for it
+                if (admission != null && !admission.admit(channel.remoteAddress())) {
+                    channel.unsafe().closeForcibly();
+                    return;
+                }
+
                 channel.pipeline().addLast("laivy_auth_injector", new ChannelInboundHandlerAdapter() {
                     @Override
                     public void channelActive(@NotNull ChannelHandlerContext ctx) throws Exception {
@@ -234,4 +291,35 @@ public abstract class NettyInjection implements Flushable {
         }
     }
 
+    /**
+     * A lightweight handler for dropping the blocked play packets of an unauthenticated player.
+     */
+    private final class ChannelGateHandler extends ChannelInboundHandlerAdapter {
+
+        // Object
+
+        private final @NotNull UUID uuid;
+        private final @NotNull PlayGate gate;
+
+        private ChannelGateHandler(@NotNull UUID uuid, @NotNull PlayGate gate) {
+            this.uuid = uuid;
+            this.gate = gate;
+        }
+
+        // Modules
+
+        @Override
+        public void channelRead(@NotNull ChannelHandlerContext context, @NotNull Object message) throws Exception {
+            if (gate.isAuthenticated(uuid)) {
+                // The gate isn't needed anymore
+                eject(context.channel());
+            } else if (gate.isBlocked(message)) {
+                ReferenceCountUtil.release(message);
+                return;
+            }
+
+            super.channelRead(context, message);
+        }
+    }
+
 }
\ No newline at end of file
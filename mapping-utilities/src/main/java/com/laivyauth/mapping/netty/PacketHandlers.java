@@ -0,0 +1,61 @@
+package com.laivyauth.mapping.netty;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class retrieves the server's packet handler (the NetworkManager/Connection) of a channel.
+ * <p>
+ * The packet handler is the handler registered as {@code "packet_handler"} at the channel's pipeline,
+ * and it's the same instance during the whole channel's lifetime, so it's cached at the channel
+ * itself after the first lookup. It avoids scanning every open connection of the server each time
+ * the packet handler of a channel is needed.
+ */
+public final class PacketHandlers {
+
+    // Static initializers
+
+    private static final @NotNull String NAME = "packet_handler";
+    private static final @NotNull AttributeKey<ChannelHandler> PACKET_HANDLER = AttributeKey.valueOf("laivyauth:packet_handler");
+
+    /**
+     * Retrieves the packet handler of the channel.
+     *
+     * @param channel the channel
+     * @param type the packet handler class of this server version
+     * @return the packet handler, or null if the channel doesn't have one (yet)
+     * @param <T> the packet handler type
+     */
+    public static <T extends ChannelHandler> @Nullable T get(@NotNull Channel channel, @NotNull Class<T> type) {
+        @NotNull Attribute<ChannelHandler> attribute = channel.attr(PACKET_HANDLER);
+        @Nullable ChannelHandler handler = attribute.get();
+
+        if (!type.isInstance(handler)) {
+            handler = channel.pipeline().get(NAME);
+
+            // Some forks could register it using another name
+            if (!type.isInstance(handler)) {
+                handler = channel.pipeline().get(type);
+            }
+
+            if (handler == null) {
+                return null;
+            }
+
+            attribute.set(handler);
+        }
+
+        return type.cast(handler);
+    }
+
+    // Object
+
+    private PacketHandlers() {
+        throw new UnsupportedOperationException("this class cannot be instantiated");
+    }
+
+}
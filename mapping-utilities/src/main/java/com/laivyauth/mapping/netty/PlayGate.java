@@ -0,0 +1,60 @@
+package com.laivyauth.mapping.netty;
+
+import com.laivyauth.api.LaivyAuthApi;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * This class decides which serverbound packets of the unauthenticated players are dropped at the
+ * network threads, after the login, before being decoded into actions at the server's main thread.
+ * <p>
+ * The blocked packets are the ones whose actions are cancelled for the unauthenticated players anyway,
+ * and that the client doesn't predict (entities interactions, books and signs edits, recipes...). The
+ * packets the client predicts (block digging and placing, items usages, inventory clicks) aren't blocked:
+ * they must reach the server, so the cancelled events resynchronize the client's blocks and inventory,
+ * otherwise the player would keep ghost blocks and items. The other packets (keep alives, movements,
+ * chat and commands, the configuration phase...) still reach the server too, since they're required
+ * by the connection itself, or answered with a message by the listeners.
+ */
+public final class PlayGate {
+
+    // Object
+
+    private final @NotNull LaivyAuthApi api;
+    private final @NotNull Set<Class<?>> blocked;
+
+    /**
+     * Constructor for PlayGate.
+     *
+     * @param api the api, used to check if the players are authenticated
+     * @param blocked the packets classes dropped while the player isn't authenticated
+     */
+    public PlayGate(@NotNull LaivyAuthApi api, @NotNull Class<?> @NotNull ... blocked) {
+        this.api = api;
+        this.blocked = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(blocked)));
+    }
+
+    // Getters
+
+    /**
+     * @param uuid the player's unique id
+     * @return true if the player is authenticated, so its packets doesn't need to be checked anymore.
+     */
+    public boolean isAuthenticated(@NotNull UUID uuid) {
+        return api.isAuthenticated(uuid);
+    }
+
+    /**
+     * @param message the packet received from an unauthenticated player
+     * @return true if the packet must be dropped.
+     */
+    public boolean isBlocked(@NotNull Object message) {
+        return blocked.contains(message.getClass());
+    }
+
+}
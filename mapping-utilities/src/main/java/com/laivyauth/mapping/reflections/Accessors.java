@@ -0,0 +1,129 @@
+package com.laivyauth.mapping.reflections;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * This class resolves the reflective accessors of the mappings as method handles.
+ * <p>
+ * The mappings keep each handle at a static final field of their reflections class, so the members
+ * are looked up only once, when the class is initialized at the mapping start, instead of at every
+ * login. A missing member (an unsupported server build) fails the mapping start with an
+ * {@link IllegalStateException}, and the constant handles are inlined by the JIT like direct calls.
+ * <p>
+ * The handles are adapted to the types informed, so they must be invoked with
+ * {@link MethodHandle#invokeExact(Object...)} using exactly these types.
+ */
+public final class Accessors {
+
+    // Static initializers
+
+    private static final @NotNull MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    /**
+     * Forces the initialization of a reflections class, resolving all of its accessors.
+     *
+     * @param type the reflections class
+     * @throws IllegalStateException if any accessor cannot be resolved
+     */
+    public static void initialize(@NotNull Class<?> type) {
+        try {
+            Class.forName(type.getName(), true, type.getClassLoader());
+        } catch (@NotNull ClassNotFoundException e) {
+            throw new IllegalStateException("cannot find reflections class '" + type.getName() + "'", e);
+        } catch (@NotNull ExceptionInInitializerError e) {
+            @NotNull Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IllegalStateException("cannot resolve the accessors of '" + type.getName() + "': " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Resolves a field getter. The handle type is {@code (declaring)type}, or {@code ()type} for static fields.
+     */
+    public static @NotNull MethodHandle getter(@NotNull Class<?> declaring, @NotNull String name, @NotNull Class<?> type) {
+        @NotNull Field field = field(declaring, name);
+
+        try {
+            @NotNull MethodHandle handle = lookup.unreflectGetter(field);
+
+            if (Modifier.isStatic(field.getModifiers())) {
+                return handle.asType(MethodType.methodType(type));
+            } else {
+                return handle.asType(MethodType.methodType(type, declaring));
+            }
+        } catch (@NotNull IllegalAccessException | @NotNull WrongMethodTypeException e) {
+            throw new IllegalStateException("cannot access field '" + name + "' of '" + declaring.getName() + "' as '" + type.getName() + "'", e);
+        }
+    }
+    /**
+     * Resolves a field setter. The handle type is {@code (declaring, type)void}, or {@code (type)void} for static fields.
+     */
+    public static @NotNull MethodHandle setter(@NotNull Class<?> declaring, @NotNull String name, @NotNull Class<?> type) {
+        @NotNull Field field = field(declaring, name);
+
+        try {
+            @NotNull MethodHandle handle = lookup.unreflectSetter(field);
+
+            if (Modifier.isStatic(field.getModifiers())) {
+                return handle.asType(MethodType.methodType(void.class, type));
+            } else {
+                return handle.asType(MethodType.methodType(void.class, declaring, type));
+            }
+        } catch (@NotNull IllegalAccessException | @NotNull WrongMethodTypeException e) {
+            throw new IllegalStateException("cannot modify field '" + name + "' of '" + declaring.getName() + "' as '" + type.getName() + "'", e);
+        }
+    }
+    /**
+     * Resolves a method. The handle type is {@code (declaring, parameters...)returns}, or
+     * {@code (parameters...)returns} for static methods.
+     */
+    public static @NotNull MethodHandle method(@NotNull Class<?> declaring, @NotNull String name, @NotNull Class<?> returns, @NotNull Class<?> @NotNull ... parameters) {
+        @NotNull Method method;
+
+        try {
+            method = declaring.getDeclaredMethod(name, parameters);
+            method.setAccessible(true);
+        } catch (@NotNull NoSuchMethodException e) {
+            throw new IllegalStateException("cannot find method '" + name + "' of '" + declaring.getName() + "'", e);
+        }
+
+        try {
+            @NotNull MethodHandle handle = lookup.unreflect(method);
+
+            if (Modifier.isStatic(method.getModifiers())) {
+                return handle.asType(MethodType.methodType(returns, parameters));
+            } else {
+                return handle.asType(MethodType.methodType(returns, parameters).insertParameterTypes(0, declaring));
+            }
+        } catch (@NotNull IllegalAccessException | @NotNull WrongMethodTypeException e) {
+            throw new IllegalStateException("cannot access method '" + name + "' of '" + declaring.getName() + "'", e);
+        }
+    }
+
+    // Utilities
+
+    private static @NotNull Field field(@NotNull Class<?> declaring, @NotNull String name) {
+        try {
+            @NotNull Field field = declaring.getDeclaredField(name);
+            field.setAccessible(true);
+
+            return field;
+        } catch (@NotNull NoSuchFieldException e) {
+            throw new IllegalStateException("cannot find field '" + name + "' of '" + declaring.getName() + "'", e);
+        }
+    }
+
+    // Object
+
+    private Accessors() {
+        throw new UnsupportedOperationException("this class cannot be instantiated");
+    }
+
+}
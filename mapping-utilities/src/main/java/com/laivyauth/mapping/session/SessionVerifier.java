@@ -0,0 +1,119 @@
+package com.laivyauth.mapping.session;
+
+import com.laivyauth.utilities.timeout.Timeout;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is responsible for the premium session verification (the Mojang's "has joined server" request)
+ * outside the netty's event loops. The verification is a blocking HTTP request, and performing it directly
+ * at the network threads blocks every other channel handled by the same event loop until Mojang responds.
+ * <p>
+ * The lookups are executed by a bounded pool of daemon threads, and each one has a deadline. If the
+ * deadline is reached, or the pool is saturated, the returned future completes exceptionally.
+ */
+public final class SessionVerifier implements Closeable {
+
+    // Static initializers
+
+    private static final int QUEUE_SIZE_PER_THREAD = 64;
+
+    // Object
+
+    private final @NotNull ThreadPoolExecutor executor;
+    private final @NotNull Duration timeout;
+
+    /**
+     * Constructor for SessionVerifier.
+     *
+     * @param threads the maximum number of sessions being verified at the same time.
+     * @param timeout the maximum time a session verification could take.
+     */
+    public SessionVerifier(int threads, @NotNull Duration timeout) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("the session verifier must have at least one thread");
+        }
+
+        @NotNull AtomicInteger count = new AtomicInteger(0);
+
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads * QUEUE_SIZE_PER_THREAD), (runnable) -> {
+            @NotNull Thread thread = new Thread(runnable, "Session Verifier #" + count.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    // Getters
+
+    public @NotNull Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return the number of sessions waiting for a free verification thread.
+     */
+    public int getPending() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return the number of sessions being verified at this moment.
+     */
+    public int getActive() {
+        return executor.getActiveCount();
+    }
+
+    // Modules
+
+    /**
+     * Submits a session lookup to be executed outside the caller thread.
+     * <p>
+     * The returned future is completed by the verification thread, so the caller is responsible
+     * for moving the result back to the channel's event loop.
+     *
+     * @param lookup the blocking session lookup
+     * @return a future that completes with the lookup result, or exceptionally if it fails, times out or gets rejected.
+     * @param <T> the lookup result type
+     */
+    public <T> @NotNull CompletableFuture<@Nullable T> verify(@NotNull Callable<@Nullable T> lookup) {
+        @NotNull CompletableFuture<@Nullable T> future = new CompletableFuture<>();
+
+        try {
+            @NotNull Future<?> task = executor.submit(() -> {
+                try {
+                    future.complete(lookup.call());
+                } catch (@NotNull Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                }
+            });
+
+            // Deadline
+            @NotNull Timeout deadline = new Timeout(getTimeout()).whenComplete((e) -> {
+                if (e != null && future.completeExceptionally(new TimeoutException("the session verification took more than " + getTimeout().toMillis() + "ms"))) {
+                    task.cancel(true);
+                }
+            });
+            future.whenComplete((result, throwable) -> deadline.cancel());
+        } catch (@NotNull RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    // Loaders
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+}
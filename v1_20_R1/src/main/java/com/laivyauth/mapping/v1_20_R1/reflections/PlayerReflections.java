@@ -1,94 +1,78 @@
 package com.laivyauth.mapping.v1_20_R1.reflections;
 
+import com.laivyauth.mapping.netty.PacketHandlers;
+import com.laivyauth.mapping.reflections.Accessors;
 import com.mojang.authlib.GameProfile;
 import io.netty.channel.Channel;
 import net.minecraft.network.NetworkManager;
 import net.minecraft.server.network.HandshakeListener;
 import net.minecraft.server.network.LoginListener;
-import net.minecraft.server.network.ServerConnection;
-import org.bukkit.Bukkit;
-import org.bukkit.craftbukkit.v1_20_R1.CraftServer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Field;
+import java.lang.invoke.MethodHandle;
 import java.net.InetAddress;
-import java.util.List;
 import java.util.Map;
 
 public final class PlayerReflections {
 
     // Static initializers
 
-    public static @NotNull NetworkManager getNetworkManager(@NotNull Channel channel) {
-        @Nullable ServerConnection connection = ((CraftServer) Bukkit.getServer()).getServer().ad();
-        if (connection == null) throw new NullPointerException("cannot retrieve server connection");
+    // Accessors, resolved once when the mapping starts
+    private static final @NotNull MethodHandle CHALLENGE = Accessors.getter(LoginListener.class, "e", byte[].class);
+    private static final @NotNull MethodHandle PROFILE = Accessors.getter(LoginListener.class, "j", GameProfile.class);
+    private static final @NotNull MethodHandle THROTTLE_TRACKER = Accessors.getter(HandshakeListener.class, "throttleTracker", Map.class);
+    private static final @NotNull MethodHandle STATE = Accessors.setter(LoginListener.class, "h", Enum.class); // State
 
-        @NotNull List<NetworkManager> networks = connection.e();
-        for (@NotNull NetworkManager network : networks) {
-            @NotNull Channel target = network.m;
+    private static final @NotNull Enum<?> AUTHENTICATING;
 
-            if (channel.equals(target)) {
-                return network;
-            }
+    static {
+        try {
+            AUTHENTICATING = (Enum<?>) Class.forName("net.minecraft.server.network.LoginListener$EnumProtocolState").getEnumConstants()[2]; // AUTHENTICATING
+        } catch (@NotNull ClassNotFoundException e) {
+            throw new IllegalStateException("cannot find login listener state class", e);
         }
+    }
+
+    public static @NotNull NetworkManager getNetworkManager(@NotNull Channel channel) {
+        @Nullable NetworkManager network = PacketHandlers.get(channel, NetworkManager.class);
+        if (network == null) throw new NullPointerException("cannot retrieve network manager");
 
-        throw new NullPointerException("Cannot retrieve network manager");
+        return network;
     }
 
     public static byte[] getEncryptionBytes(@NotNull LoginListener listener) {
         try {
-            @NotNull Field field = listener.getClass().getDeclaredField("e");
-            field.setAccessible(true);
-
-            return (byte[]) field.get(listener);
-        } catch (@NotNull NoSuchFieldException e) {
-            throw new RuntimeException("cannot get encryption bytes from login listener", e);
-        } catch (@NotNull IllegalAccessException e) {
-            throw new RuntimeException();
+            return (byte[]) CHALLENGE.invokeExact(listener);
+        } catch (@NotNull Throwable throwable) {
+            throw new RuntimeException("cannot get encryption bytes from login listener", throwable);
         }
     }
     public static @NotNull GameProfile getListenerProfile(@NotNull LoginListener listener) {
         try {
-            @NotNull Field field = LoginListener.class.getDeclaredField("j");
-            field.setAccessible(true);
-
-            return ((GameProfile) field.get(listener));
-        } catch (@NotNull NoSuchFieldException e) {
-            throw new RuntimeException("cannot retrieve game profile field from LoginListener");
-        } catch (@NotNull IllegalAccessException e) {
-            throw new RuntimeException(e);
+            return (GameProfile) PROFILE.invokeExact(listener);
+        } catch (@NotNull Throwable throwable) {
+            throw new RuntimeException("cannot retrieve game profile field from LoginListener", throwable);
         }
     }
     public static void resetThrottling(@NotNull InetAddress address) {
         try {
             // Retrieve throttle tracker's map instance
-            @NotNull Field field = HandshakeListener.class.getDeclaredField("throttleTracker");
-            field.setAccessible(true);
-
             //noinspection unchecked
-            @NotNull Map<InetAddress, Long> map = (Map<InetAddress, Long>) field.get(null);
+            @NotNull Map<InetAddress, Long> map = (Map<InetAddress, Long>) THROTTLE_TRACKER.invokeExact();
 
             // Remove from map
             map.remove(address);
-        } catch (@NotNull NoSuchFieldException | @NotNull IllegalAccessException e) {
-            throw new RuntimeException("cannot retrieve/access throttle tracker field from handshake listener class", e);
+        } catch (@NotNull Throwable throwable) {
+            throw new RuntimeException("cannot retrieve throttle tracker field from handshake listener class", throwable);
         }
     }
 
     public static void setAuthenticating(@NotNull LoginListener listener) {
         try {
-            @NotNull Field enumField = listener.getClass().getDeclaredField("h"); // State
-            enumField.setAccessible(true);
-
-            @NotNull Enum<?> enumObject = (Enum<?>) Class.forName("net.minecraft.server.network.LoginListener$EnumProtocolState").getEnumConstants()[2]; // AUTHENTICATING
-            enumField.set(listener, enumObject);
-        } catch (@NotNull NoSuchFieldException e) {
-            throw new RuntimeException("cannot find authenticating field", e);
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException("cannot find login listener class", e);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException("cannot access authenticating field", e);
+            STATE.invokeExact(listener, AUTHENTICATING);
+        } catch (@NotNull Throwable throwable) {
+            throw new RuntimeException("cannot change authenticating field", throwable);
         }
     }
 
@@ -1,5 +1,6 @@
 package com.laivyauth.mapping.v1_20_R1.reflections;
 
+import com.laivyauth.mapping.reflections.Accessors;
 import com.laivyauth.mapping.v1_20_R1.Main;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -15,6 +16,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.jetbrains.annotations.NotNull;
 
 import javax.crypto.SecretKey;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -26,6 +28,9 @@ public final class ServerReflections {
 
     // Static initializers
 
+    // Accessors, resolved once when the mapping starts
+    private static final @NotNull MethodHandle CHANNELS = Accessors.getter(ServerConnection.class, "f", List.class);
+
     public static void setOnlineMode(boolean onlineMode) {
         if (Main.getConfiguration().getPremiumAuthentication().isEnabled()) {
             ((CraftServer) Bukkit.getServer()).getServer().d(onlineMode);
@@ -41,17 +46,12 @@ public final class ServerReflections {
             @NotNull ServerConnection connection = Objects.requireNonNull(((CraftServer) Bukkit.getServer()).getServer().ad(), "cannot retrieve server connection");
 
             // Retrieve channel futures
-            @NotNull Field field = connection.getClass().getDeclaredField("f");
-            field.setAccessible(true);
-
             //noinspection unchecked
-            @NotNull List<ChannelFuture> list = (List<ChannelFuture>) field.get(connection);
+            @NotNull List<ChannelFuture> list = (List<ChannelFuture>) CHANNELS.invokeExact(connection);
 
             return list.get(0).channel();
-        } catch (@NotNull NoSuchFieldException e) {
-            throw new RuntimeException("cannot find channels field", e);
-        } catch (@NotNull IllegalAccessException e) {
-            throw new RuntimeException(e);
+        } catch (@NotNull Throwable throwable) {
+            throw new RuntimeException("cannot retrieve server channels", throwable);
         }
     }
     public static int getProtocolVersion() throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
@@ -8,13 +8,16 @@ import com.laivyauth.api.mapping.Mapping.Connection.State;
 import com.laivyauth.api.platform.Protocol;
 import com.laivyauth.mapping.Handshake;
 import com.laivyauth.mapping.impl.ConnectionImpl;
+import com.laivyauth.mapping.login.LoginExecutor;
 import com.laivyauth.mapping.netty.NettyInjection;
+import com.laivyauth.mapping.netty.PlayGate;
+import com.laivyauth.mapping.reflections.Accessors;
+import com.laivyauth.mapping.session.SessionVerifier;
 import com.laivyauth.mapping.v1_20_R1.Main;
 import com.laivyauth.mapping.v1_20_R1.reflections.PlayerReflections;
 import com.laivyauth.mapping.v1_20_R1.reflections.ServerReflections;
 import com.laivyauth.utilities.messages.PluginMessages;
 import com.mojang.authlib.GameProfile;
-import com.mojang.authlib.exceptions.AuthenticationUnavailableException;
 import com.mojang.authlib.minecraft.MinecraftSessionService;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
@@ -23,6 +26,12 @@ import net.minecraft.network.EnumProtocol;
 import net.minecraft.network.NetworkManager;
 import net.minecraft.network.PacketDecrypter;
 import net.minecraft.network.PacketEncrypter;
+import net.minecraft.network.chat.IChatBaseComponent;
+import net.minecraft.network.protocol.game.PacketPlayInAutoRecipe;
+import net.minecraft.network.protocol.game.PacketPlayInBEdit;
+import net.minecraft.network.protocol.game.PacketPlayInEnchantItem;
+import net.minecraft.network.protocol.game.PacketPlayInUpdateSign;
+import net.minecraft.network.protocol.game.PacketPlayInUseEntity;
 import net.minecraft.network.protocol.handshake.PacketHandshakingInSetProtocol;
 import net.minecraft.network.protocol.login.*;
 import net.minecraft.server.MinecraftServer;
@@ -48,6 +57,7 @@ import java.security.PublicKey;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import static com.laivyauth.mapping.v1_20_R1.Main.getApi;
 import static com.laivyauth.mapping.v1_20_R1.Main.getConfiguration;
@@ -59,6 +69,10 @@ final class Spigot extends NettyInjection implements Flushable {
     private static volatile @UnknownNullability Spigot instance;
 
     public static synchronized void initialize() {
+        // Resolve the reflection accessors, it fails if this server build isn't supported
+        Accessors.initialize(ServerReflections.class);
+        Accessors.initialize(PlayerReflections.class);
+
         instance = new Spigot();
     }
     public static synchronized void interrupt() throws IOException {
@@ -71,8 +85,30 @@ final class Spigot extends NettyInjection implements Flushable {
 
     // Object
 
+    private final @NotNull SessionVerifier verifier;
+    private final @NotNull LoginExecutor executor;
+    private final @NotNull PlayGate gate;
+
+    // Prebuilt, since it doesn't have placeholders
+    private final @NotNull IChatBaseComponent authenticationError = ServerReflections.chat(PluginMessages.getMessage("authentication error"));
+
     public Spigot() {
-        super(ServerReflections.getServerChannel());
+        super(ServerReflections.getServerChannel(), getConfiguration().getAdmission());
+
+        // Premium sessions verifier
+        this.verifier = new SessionVerifier(Main.getConfiguration().getPremiumAuthentication().getVerificationThreads(), Main.getConfiguration().getPremiumAuthentication().getVerificationTimeout());
+
+        // Login completions executor
+        this.executor = new LoginExecutor(Main.getConfiguration().getAuthentication().getLoginThreads());
+
+        // Play packets dropped until the player authenticates
+        this.gate = new PlayGate(getApi(),
+                PacketPlayInAutoRecipe.class,
+                PacketPlayInBEdit.class,
+                PacketPlayInEnchantItem.class,
+                PacketPlayInUpdateSign.class,
+                PacketPlayInUseEntity.class
+        );
 
         if (getConfiguration().getPremiumAuthentication().isEnabled()) {
             // Set 'online-mode' to true
@@ -90,7 +126,12 @@ final class Spigot extends NettyInjection implements Flushable {
 
     @Override
     public void flush() throws IOException {
-        super.flush();
+        try {
+            super.flush();
+        } finally {
+            verifier.close();
+            executor.close();
+        }
     }
 
     // Modules
@@ -126,18 +167,23 @@ final class Spigot extends NettyInjection implements Flushable {
             @NotNull String name = packet.a(); // Name
 
             // Check if there's a player already connected with this name
-            if (Bukkit.getOnlinePlayers().stream().anyMatch(player -> player.getName().equals(name))) {
+            if (getApi().isOnline(name)) {
                 channel.write(new PacketLoginOutDisconnect(ServerReflections.chat(PluginMessages.getMessage("accounts.nickname already connected", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", name)))));
                 return null;
             }
 
             // Check connections at this address
             int maximumConnections = getConfiguration().getAccounts().getMaximumAuthenticatedPerIp();
-            if (maximumConnections > 0) {
-                long connections = Bukkit.getOnlinePlayers().stream().filter(player -> player.getAddress() != null && player.getAddress().getHostName().equals(handshake.getAddress().toString())).count();
+
+            // The network manager's address is the forwarded one behind a proxy, the same of the online players
+            @NotNull SocketAddress socket = PlayerReflections.getNetworkManager(channel).c();
+            @Nullable InetAddress remote = socket instanceof InetSocketAddress ? ((InetSocketAddress) socket).getAddress() : null;
+
+            if (maximumConnections > 0 && remote != null) {
+                int connections = getApi().getOnlineCount(remote);
 
                 if (connections >= maximumConnections) {
-                    channel.write(new PacketLoginOutDisconnect(ServerReflections.chat(PluginMessages.getMessage("accounts.maximum connected per ip", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("current", connections), new PluginMessages.Placeholder("maximum", maximumConnections), new PluginMessages.Placeholder("address", handshake.getAddress().toString())))));
+                    channel.write(new PacketLoginOutDisconnect(ServerReflections.chat(PluginMessages.getMessage("accounts.maximum connected per ip", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("current", connections), new PluginMessages.Placeholder("maximum", maximumConnections), new PluginMessages.Placeholder("address", remote.getHostAddress())))));
                     return null;
                 }
             }
@@ -149,7 +195,7 @@ final class Spigot extends NettyInjection implements Flushable {
             }
 
             // Check if there's already a user playing with that nickname
-            if (Bukkit.getOnlinePlayers().stream().anyMatch(player -> player.getName().equals(name))) {
+            if (getApi().isOnline(name)) {
                 channel.write(new PacketLoginOutDisconnect(ServerReflections.chat(PluginMessages.getMessage("prevent double join error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", name)))));
                 return null;
             }
@@ -157,12 +203,18 @@ final class Spigot extends NettyInjection implements Flushable {
             // Retrieve account and verify the case-sensitive issue
             @Nullable Account account = getApi().getAccount(name).orElse(null);
             if (account != null && !account.getName().equals(name) && getConfiguration().isCaseSensitiveNicknames()) {
-                channel.write(new PacketLoginOutDisconnect(ServerReflections.chat(PluginMessages.getMessage("nickname case sensitive error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", name)))));
+                channel.write(new PacketLoginOutDisconnect(ServerReflections.chat(PluginMessages.getMessage("nickname case sensitive error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("current_nickname", name), new PluginMessages.Placeholder("account_nickname", account.getName())))));
                 return null;
             }
 
             // Create connection instance
-            @Nullable ConnectionImpl connection = ConnectionImpl.retrieve(name).orElse(null);
+            @Nullable ConnectionImpl connection = ConnectionImpl.retrieve(Main.getApi(), name).orElse(null);
+
+            // The connection could have the same nickname but a different case, if the nicknames are case-folded
+            if (connection != null && !connection.getName().equals(name)) {
+                channel.write(new PacketLoginOutDisconnect(ServerReflections.chat(PluginMessages.getMessage("nickname case sensitive error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("current_nickname", name), new PluginMessages.Placeholder("account_nickname", connection.getName())))));
+                return null;
+            }
 
             // Check cracked
             if (!getConfiguration().getWhitelist().isAllowCrackedUsers() && ((account != null && account.getType() == Account.Type.CRACKED) || (connection != null && connection.getType() == Account.Type.CRACKED))) {
@@ -189,99 +241,122 @@ final class Spigot extends NettyInjection implements Flushable {
         } else if (message instanceof @NotNull PacketLoginInEncryptionBegin begin) {
             // Connection and modules
             @NotNull ConnectionImpl connection = ConnectionImpl.retrieve(channel).orElseThrow(() -> new NullPointerException("cannot retrieve client's connection"));
-            @Nullable Account account = connection.getAccount();
 
             // Start encryption
-            try {
-                @NotNull MinecraftServer server = ((CraftServer) Bukkit.getServer()).getServer();
-                @NotNull NetworkManager network = PlayerReflections.getNetworkManager(channel); // Network Manager
-                @NotNull LoginListener listener = (LoginListener) network.j(); // Login Listener
+            @NotNull MinecraftServer server = ((CraftServer) Bukkit.getServer()).getServer();
+            @NotNull NetworkManager network = PlayerReflections.getNetworkManager(channel); // Network Manager
+            @NotNull LoginListener listener = (LoginListener) network.j(); // Login Listener
 
-                @NotNull SocketAddress remoteAddress = network.c(); // Remote Address
+            @NotNull SocketAddress remoteAddress = network.c(); // Remote Address
 
-                // Keys
-                @NotNull KeyPair keys = server.L(); // Get KeyPair
-                @NotNull PrivateKey privateKey = keys.getPrivate(); // Get KeyPair's private key
-                @NotNull PublicKey publicKey = keys.getPublic(); // Get KeyPair's public key
+            // Keys
+            @NotNull KeyPair keys = server.L(); // Get KeyPair
+            @NotNull PrivateKey privateKey = keys.getPrivate(); // Get KeyPair's private key
+            @NotNull PublicKey publicKey = keys.getPublic(); // Get KeyPair's public key
 
-                // Address and encryption
-                boolean usesAuthentication = Bukkit.getServer().getOnlineMode(); // Uses Authentication
-                byte[] encryption = PlayerReflections.getEncryptionBytes(listener);
-                @Nullable InetAddress address = usesAuthentication && remoteAddress instanceof InetSocketAddress ? ((InetSocketAddress) remoteAddress).getAddress() : null;
+            // Address and encryption
+            boolean usesAuthentication = Bukkit.getServer().getOnlineMode(); // Uses Authentication
+            byte[] encryption = PlayerReflections.getEncryptionBytes(listener);
+            @Nullable InetAddress address = usesAuthentication && remoteAddress instanceof InetSocketAddress ? ((InetSocketAddress) remoteAddress).getAddress() : null;
 
-                // Hash
-                @NotNull String secret;
+            // Hash
+            @NotNull String secret;
 
-                try {
-                    if (!begin.a(encryption, privateKey)) { // Check if challenge is valid
-                        throw new IllegalStateException("encryption arrays are not equals");
-                    } else {
-                        @NotNull SecretKey secretkey = begin.a(privateKey); // Get Secret Key
-                        secret = (new BigInteger(ServerReflections.digestData("", publicKey, secretkey))).toString(16);
-                    }
-                } catch (@NotNull CryptographyException exception) {
-                    throw new IllegalStateException("cannot proceed with the cryptography", exception);
+            try {
+                if (!begin.a(encryption, privateKey)) { // Check if challenge is valid
+                    throw new IllegalStateException("encryption arrays are not equals");
+                } else {
+                    @NotNull SecretKey secretkey = begin.a(privateKey); // Get Secret Key
+                    secret = (new BigInteger(ServerReflections.digestData("", publicKey, secretkey))).toString(16);
                 }
+            } catch (@NotNull CryptographyException exception) {
+                throw new IllegalStateException("cannot proceed with the cryptography", exception);
+            }
 
-                // Check if the session was successful
-                @NotNull MinecraftSessionService service = server.am();
-                @Nullable GameProfile approved = service.hasJoinedServer(new GameProfile(null, connection.getName()), secret, address);
+            // Check if the session was successful. The verification runs outside the event loop,
+            // and the channel stops reading until the mojang's servers respond.
+            @NotNull MinecraftSessionService service = server.am();
+            channel.config().setAutoRead(false);
 
+            verifier.verify(() -> service.hasJoinedServer(new GameProfile(null, connection.getName()), secret, address)).whenComplete((approved, throwable) -> {
                 try {
-                    if (approved != null) try {
-                        connection.setType(Account.Type.PREMIUM);
-                        connection.setUniqueId(approved.getId());
-
-                        listener.a(begin); // Handle Key
-                    } catch (@NotNull Throwable throwable) {
-                        Main.log.error("Cannot authenticate premium player {}: {}", connection.getName(), throwable.getMessage());
-                        Main.log.atDebug().setCause(throwable).log();
-
-                        Main.getExceptionHandler().handle(throwable);
-                    } else try {
-                        if (account != null && account.getType() == Account.Type.PREMIUM) {
-                            channel.write(new PacketLoginOutDisconnect(ServerReflections.chat(PluginMessages.getMessage("premium authentication.premium account required error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName())))));
-                            return null;
+                    channel.eventLoop().execute(() -> {
+                        try {
+                            if (!channel.isActive()) {
+                                return;
+                            } else if (throwable != null) {
+                                exception(context, new RuntimeException("The authentication servers/methods are unavailable.", throwable));
+                            } else {
+                                encrypt(channel, connection, listener, begin, privateKey, approved);
+                            }
+                        } finally {
+                            channel.config().setAutoRead(true);
                         }
+                    });
+                } catch (@NotNull RejectedExecutionException ignore) {
+                    // The event loop is shutting down, the connection cannot proceed
+                    channel.close();
+                }
+            });
 
-                        // Initialize
-                        listener.initUUID();
+            return null;
+        }
 
-                        connection.setUniqueId(PlayerReflections.getListenerProfile(listener).getId());
-                        connection.setType(Account.Type.CRACKED);
+        // Finish
+        return message;
+    }
+    private void encrypt(@NotNull Channel channel, @NotNull ConnectionImpl connection, @NotNull LoginListener listener, @NotNull PacketLoginInEncryptionBegin begin, @NotNull PrivateKey privateKey, @Nullable GameProfile approved) {
+        @Nullable Account account = connection.getAccount();
 
-                        // Check cracked
-                        if (!getConfiguration().getWhitelist().isAllowCrackedUsers() && (account != null && account.getType() == Account.Type.CRACKED || connection.getType() == Account.Type.CRACKED)) {
-                            channel.write(new PacketLoginOutDisconnect(ServerReflections.chat(PluginMessages.getMessage("whitelist.cracked users not allowed", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName()), new PluginMessages.Placeholder("uuid", String.valueOf(connection.getUniqueId()))))));
-                            return null;
-                        }
+        try {
+            if (approved != null) try {
+                connection.setType(Account.Type.PREMIUM);
+                connection.setUniqueId(approved.getId());
 
-                        // Encrypt and Decrypt modules
-                        @NotNull SecretKey secretkey = begin.a(privateKey); // Get Secret Key
+                listener.a(begin); // Handle Key
+            } catch (@NotNull Throwable throwable) {
+                Main.log.error("Cannot authenticate premium player {}: {}", connection.getName(), throwable.getMessage());
+                Main.log.atDebug().setCause(throwable).log();
 
-                        channel.pipeline().addBefore("splitter", "decrypt", new PacketDecrypter(MinecraftEncryption.a(2, secretkey))); // Get Secondary Cipher
-                        channel.pipeline().addBefore("prepender", "encrypt", new PacketEncrypter(MinecraftEncryption.a(1, secretkey))); // Get Primary Cipher
+                Main.getExceptionHandler().handle(throwable);
+            } else try {
+                if (account != null && account.getType() == Account.Type.PREMIUM) {
+                    channel.write(new PacketLoginOutDisconnect(ServerReflections.chat(PluginMessages.getMessage("premium authentication.premium account required error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName())))));
+                    return;
+                }
 
-                        new FireEventsThread(connection, listener).start();
-                    } catch (@NotNull Throwable throwable) {
-                        Main.log.error("Cannot authenticate cracked player {}: {}", connection.getName(), throwable.getMessage());
-                        Main.log.atDebug().setCause(throwable).log();
+                // Initialize
+                listener.initUUID();
 
-                        Main.getExceptionHandler().handle(throwable);
-                    }
-                } finally {
-                    // Change connection's state
-                    connection.setState(State.ENCRYPTED);
+                connection.setUniqueId(PlayerReflections.getListenerProfile(listener).getId());
+                connection.setType(Account.Type.CRACKED);
+
+                // Check cracked
+                if (!getConfiguration().getWhitelist().isAllowCrackedUsers() && (account != null && account.getType() == Account.Type.CRACKED || connection.getType() == Account.Type.CRACKED)) {
+                    channel.write(new PacketLoginOutDisconnect(ServerReflections.chat(PluginMessages.getMessage("whitelist.cracked users not allowed", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName()), new PluginMessages.Placeholder("uuid", String.valueOf(connection.getUniqueId()))))));
+                    return;
                 }
 
-                return null;
-            } catch (@NotNull AuthenticationUnavailableException e) {
-                throw new RuntimeException("The authentication servers/methods are unavailable.", e);
+                // Encrypt and Decrypt modules
+                @NotNull SecretKey secretkey = begin.a(privateKey); // Get Secret Key
+
+                channel.pipeline().addBefore("splitter", "decrypt", new PacketDecrypter(MinecraftEncryption.a(2, secretkey))); // Get Secondary Cipher
+                channel.pipeline().addBefore("prepender", "encrypt", new PacketEncrypter(MinecraftEncryption.a(1, secretkey))); // Get Primary Cipher
+
+                if (!executor.execute(connection.getName(), new FireEvents(connection, listener))) {
+                    channel.write(new PacketLoginOutDisconnect(ServerReflections.chat(PluginMessages.getMessage("server busy error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName())))));
+                    channel.close();
+                }
+            } catch (@NotNull Throwable throwable) {
+                Main.log.error("Cannot authenticate cracked player {}: {}", connection.getName(), throwable.getMessage());
+                Main.log.atDebug().setCause(throwable).log();
+
+                Main.getExceptionHandler().handle(throwable);
             }
+        } finally {
+            // Change connection's state
+            connection.setState(State.ENCRYPTED);
         }
-
-        // Finish
-        return message;
     }
     @Override
     protected @UnknownNullability Object write(@NotNull ChannelHandlerContext context, @NotNull Object message, @NotNull ChannelPromise promise) throws IOException {
@@ -325,7 +400,11 @@ final class Spigot extends NettyInjection implements Flushable {
                     connection.setUniqueId(PlayerReflections.getListenerProfile(listener).getId());
 
                     // Fire the events
-                    new FireEventsThread(connection, listener).start();
+                    if (!executor.execute(connection.getName(), new FireEvents(connection, listener))) {
+                        channel.write(new PacketLoginOutDisconnect(ServerReflections.chat(PluginMessages.getMessage("server busy error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName())))));
+                        channel.close();
+                    }
+
                     return null;
                 } else {
                     // Change connection's state
@@ -358,8 +437,8 @@ final class Spigot extends NettyInjection implements Flushable {
                 // Change state to success
                 connection.setState(State.SUCCESS);
 
-                // Eject
-                eject(channel);
+                // Keep dropping the blocked play packets until the player authenticates
+                play(channel, connection.getUniqueId(), gate);
             } finally {
                 // Flush connection
                 connection.flush();
@@ -424,7 +503,7 @@ final class Spigot extends NettyInjection implements Flushable {
     @Override
     protected void exception(@NotNull ChannelHandlerContext context, @NotNull Throwable cause) {
         @NotNull Channel channel = context.channel();
-        channel.write(new PacketLoginOutDisconnect(ServerReflections.chat(PluginMessages.getMessage("authentication error", PluginMessages.Placeholder.PREFIX))));
+        channel.write(new PacketLoginOutDisconnect(authenticationError));
         channel.close();
 
         // Handle the exception
@@ -437,14 +516,12 @@ final class Spigot extends NettyInjection implements Flushable {
 
     // Classes
 
-    private static final class FireEventsThread extends Thread {
+    private static final class FireEvents implements Runnable {
 
         private final @NotNull Connection connection;
         private final @NotNull LoginListener listener;
 
-        private FireEventsThread(@NotNull Connection connection, @NotNull LoginListener listener) {
-            super("User Authentication '" + connection.getName() + "'");
-
+        private FireEvents(@NotNull Connection connection, @NotNull LoginListener listener) {
             this.connection = connection;
             this.listener = listener;
         }
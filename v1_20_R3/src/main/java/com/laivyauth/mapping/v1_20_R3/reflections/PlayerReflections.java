@@ -1,19 +1,15 @@
 package com.laivyauth.mapping.v1_20_R3.reflections;
 
+import com.laivyauth.mapping.netty.PacketHandlers;
+import com.laivyauth.mapping.reflections.Accessors;
 import com.mojang.authlib.GameProfile;
 import io.netty.channel.Channel;
 import net.minecraft.network.NetworkManager;
 import net.minecraft.server.network.HandshakeListener;
 import net.minecraft.server.network.LoginListener;
-import net.minecraft.server.network.ServerConnection;
-import org.bukkit.Bukkit;
-import org.bukkit.craftbukkit.v1_20_R3.CraftServer;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.net.InetAddress;
 import java.util.Map;
 import java.util.Optional;
@@ -22,72 +18,54 @@ public final class PlayerReflections {
 
     // Static initializers
 
+    // Accessors, resolved once when the mapping starts
+    private static final @NotNull MethodHandle CHALLENGE = Accessors.getter(LoginListener.class, "e", byte[].class);
+    private static final @NotNull MethodHandle THROTTLE_TRACKER = Accessors.getter(HandshakeListener.class, "throttleTracker", Map.class);
+
+    private static final @NotNull MethodHandle CALL_PLAYER_PRE_LOGIN_EVENTS = Accessors.method(LoginListener.class, "callPlayerPreLoginEvents", void.class, GameProfile.class);
+    private static final @NotNull MethodHandle START_CLIENT_VERIFICATION = Accessors.method(LoginListener.class, "b", void.class, GameProfile.class);
+    private static final @NotNull MethodHandle CREATE_OFFLINE_PROFILE = Accessors.method(LoginListener.class, "createOfflineProfile", GameProfile.class, String.class);
+
     public static void callPlayerPreLoginEvents(@NotNull LoginListener listener, @NotNull GameProfile profile) {
         try {
-            @NotNull Method method = LoginListener.class.getDeclaredMethod("callPlayerPreLoginEvents", GameProfile.class);
-            method.setAccessible(true);
-
-            method.invoke(listener, profile);
+            CALL_PLAYER_PRE_LOGIN_EVENTS.invokeExact(listener, profile);
 
             // Mark login state
-            method = LoginListener.class.getDeclaredMethod("b", GameProfile.class);
-            method.setAccessible(true);
-
-            method.invoke(listener, profile);
-        } catch (@NotNull NoSuchMethodException e) {
-            throw new RuntimeException("cannot find LoginListener#callPlayerPreLoginEvents method", e);
-        } catch (@NotNull IllegalAccessException e) {
-            throw new RuntimeException("cannot invoke LoginListener#callPlayerPreLoginEvents method", e);
-        } catch (@NotNull InvocationTargetException e) {
-            throw new RuntimeException("exception trying to invoke player pre-login events method", e);
+            START_CLIENT_VERIFICATION.invokeExact(listener, profile);
+        } catch (@NotNull Throwable throwable) {
+            throw new RuntimeException("exception trying to invoke player pre-login events method", throwable);
         }
     }
 
     public static @NotNull Optional<NetworkManager> getNetworkManager(@NotNull Channel channel) {
-        @Nullable ServerConnection connection = ((CraftServer) Bukkit.getServer()).getServer().af();
-        if (connection == null) throw new NullPointerException("cannot retrieve server connection");
-
-        return connection.e().stream().filter(network -> channel.equals(network.n)).findFirst();
+        return Optional.ofNullable(PacketHandlers.get(channel, NetworkManager.class));
     }
 
     public static byte[] getEncryptionBytes(@NotNull LoginListener listener) {
         try {
-            @NotNull Field field = listener.getClass().getDeclaredField("e");
-            field.setAccessible(true);
-
-            return (byte[]) field.get(listener);
-        } catch (@NotNull NoSuchFieldException e) {
-            throw new RuntimeException("cannot get encryption bytes from login listener", e);
-        } catch (@NotNull IllegalAccessException e) {
-            throw new RuntimeException();
+            return (byte[]) CHALLENGE.invokeExact(listener);
+        } catch (@NotNull Throwable throwable) {
+            throw new RuntimeException("cannot get encryption bytes from login listener", throwable);
         }
     }
     public static void resetThrottling(@NotNull InetAddress address) {
         try {
             // Retrieve throttle tracker's map instance
-            @NotNull Field field = HandshakeListener.class.getDeclaredField("throttleTracker");
-            field.setAccessible(true);
-
             //noinspection unchecked
-            @NotNull Map<InetAddress, Long> map = (Map<InetAddress, Long>) field.get(null);
+            @NotNull Map<InetAddress, Long> map = (Map<InetAddress, Long>) THROTTLE_TRACKER.invokeExact();
 
             // Remove from map
             map.remove(address);
-        } catch (@NotNull NoSuchFieldException | @NotNull IllegalAccessException e) {
-            throw new RuntimeException("cannot retrieve/access throttle tracker field from handshake listener class", e);
+        } catch (@NotNull Throwable throwable) {
+            throw new RuntimeException("cannot retrieve throttle tracker field from handshake listener class", throwable);
         }
     }
 
     public static @NotNull GameProfile initializeUniqueId(@NotNull LoginListener listener, @NotNull String name) {
         try {
-            @NotNull Method initializeMethod = LoginListener.class.getDeclaredMethod("createOfflineProfile", String.class);
-            initializeMethod.setAccessible(true);
-
-            return (GameProfile) initializeMethod.invoke(listener, name);
-        } catch (@NotNull NoSuchMethodException e) {
-            throw new RuntimeException("cannot find uuid initialization method", e);
-        } catch (@NotNull InvocationTargetException | @NotNull IllegalAccessException e) {
-            throw new RuntimeException("cannot invoke or access uuid initialization method", e);
+            return (GameProfile) CREATE_OFFLINE_PROFILE.invokeExact(listener, name);
+        } catch (@NotNull Throwable throwable) {
+            throw new RuntimeException("cannot invoke uuid initialization method", throwable);
         }
     }
 
@@ -8,6 +8,7 @@ import com.laivyauth.api.platform.Version;
 import com.laivyauth.mapping.exception.ExceptionHandler;
 import com.laivyauth.mapping.impl.ConnectionImpl;
 import com.laivyauth.mapping.netty.NettyInjection;
+import com.laivyauth.mapping.reflections.Accessors;
 import net.minecraft.SharedConstants;
 import org.bukkit.Bukkit;
 import org.jetbrains.annotations.NotNull;
@@ -123,6 +124,9 @@ public final class Main implements Mapping {
     @Override
     public void start() {
         if (Platform.SPIGOT.isCompatible()) {
+            // Resolve the reflection accessors, it fails if this server build isn't supported
+            Accessors.initialize(com.laivyauth.mapping.v1_20_R4.spigot.reflections.Reflections.class);
+
             // Configure online-mode
             if (getConfiguration().getPremiumAuthentication().isEnabled()) {
                 // Set 'online-mode' to true
@@ -7,18 +7,25 @@ import com.laivyauth.api.mapping.Mapping.Connection.State;
 import com.laivyauth.api.platform.Protocol;
 import com.laivyauth.mapping.Handshake;
 import com.laivyauth.mapping.impl.ConnectionImpl;
+import com.laivyauth.mapping.login.LoginExecutor;
 import com.laivyauth.mapping.netty.NettyInjection;
+import com.laivyauth.mapping.netty.PlayGate;
+import com.laivyauth.mapping.session.SessionVerifier;
 import com.laivyauth.mapping.v1_21_R1.paper.reflections.Reflections;
 import com.laivyauth.mapping.v1_21_R1.paper.main.Main;
 import com.laivyauth.utilities.messages.PluginMessages;
 import com.mojang.authlib.GameProfile;
-import com.mojang.authlib.exceptions.AuthenticationUnavailableException;
 import com.mojang.authlib.minecraft.MinecraftSessionService;
 import com.mojang.authlib.yggdrasil.ProfileResult;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import net.minecraft.network.chat.Component;
+import net.minecraft.network.protocol.game.ServerboundContainerButtonClickPacket;
+import net.minecraft.network.protocol.game.ServerboundEditBookPacket;
+import net.minecraft.network.protocol.game.ServerboundInteractPacket;
+import net.minecraft.network.protocol.game.ServerboundPlaceRecipePacket;
+import net.minecraft.network.protocol.game.ServerboundSignUpdatePacket;
 import net.minecraft.network.protocol.handshake.ClientIntent;
 import net.minecraft.network.protocol.handshake.ClientIntentionPacket;
 import net.minecraft.network.protocol.login.*;
@@ -42,6 +49,7 @@ import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.util.Arrays;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import static com.laivyauth.api.mapping.Mapping.Connection;
 import static com.laivyauth.mapping.v1_21_R1.paper.reflections.Reflections.getNetworkManager;
@@ -51,9 +59,43 @@ public final class PaperInjection extends NettyInjection {
 
     // Object
 
+    private final @NotNull SessionVerifier verifier;
+    private final @NotNull LoginExecutor executor;
+    private final @NotNull PlayGate gate;
+
+    // Prebuilt, since it doesn't have placeholders
+    private final @NotNull Component authenticationError = Component.nullToEmpty(PluginMessages.getMessage("authentication error"));
+
     public PaperInjection() {
         // Super class instance with server channel
-        super(Reflections.getServerChannel());
+        super(Reflections.getServerChannel(), Main.getConfiguration().getAdmission());
+
+        // Premium sessions verifier
+        this.verifier = new SessionVerifier(Main.getConfiguration().getPremiumAuthentication().getVerificationThreads(), Main.getConfiguration().getPremiumAuthentication().getVerificationTimeout());
+
+        // Login completions executor
+        this.executor = new LoginExecutor(Main.getConfiguration().getAuthentication().getLoginThreads());
+
+        // Play packets dropped until the player authenticates
+        this.gate = new PlayGate(Main.getApi(),
+                ServerboundContainerButtonClickPacket.class,
+                ServerboundEditBookPacket.class,
+                ServerboundInteractPacket.class,
+                ServerboundPlaceRecipePacket.class,
+                ServerboundSignUpdatePacket.class
+        );
+    }
+
+    // Flushable
+
+    @Override
+    public void flush() throws IOException {
+        try {
+            super.flush();
+        } finally {
+            verifier.close();
+            executor.close();
+        }
     }
 
     // Modules
@@ -90,7 +132,7 @@ public final class PaperInjection extends NettyInjection {
             @NotNull String name = packet.name(); // Name
 
             // Check if there's a player already connected with this name
-            if (Bukkit.getOnlinePlayers().stream().anyMatch(player -> player.getName().equals(name))) {
+            if (Main.getApi().isOnline(name)) {
                 channel.write(new ClientboundLoginDisconnectPacket(Component.nullToEmpty(PluginMessages.getMessage("accounts.nickname already connected", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", name)))));
                 channel.close();
 
@@ -99,11 +141,16 @@ public final class PaperInjection extends NettyInjection {
 
             // Check connections at this address
             int maximumConnections = Main.getConfiguration().getAccounts().getMaximumAuthenticatedPerIp();
-            if (maximumConnections > 0) {
-                long connections = Bukkit.getOnlinePlayers().stream().filter(player -> player.getAddress() != null && player.getAddress().getHostName().equals(handshake.getAddress().toString())).count();
+
+            // The network manager's address is the forwarded one behind a proxy, the same of the online players
+            @NotNull SocketAddress socket = getNetworkManager(channel).orElseThrow(() -> new NullPointerException("cannot retrieve network manager")).getRemoteAddress();
+            @Nullable InetAddress remote = socket instanceof InetSocketAddress ? ((InetSocketAddress) socket).getAddress() : null;
+
+            if (maximumConnections > 0 && remote != null) {
+                int connections = Main.getApi().getOnlineCount(remote);
 
                 if (connections >= maximumConnections) {
-                    channel.write(new ClientboundLoginDisconnectPacket(Component.nullToEmpty(PluginMessages.getMessage("accounts.maximum connected per ip", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("current", connections), new PluginMessages.Placeholder("maximum", maximumConnections), new PluginMessages.Placeholder("address", handshake.getAddress().toString())))));
+                    channel.write(new ClientboundLoginDisconnectPacket(Component.nullToEmpty(PluginMessages.getMessage("accounts.maximum connected per ip", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("current", connections), new PluginMessages.Placeholder("maximum", maximumConnections), new PluginMessages.Placeholder("address", remote.getHostAddress())))));
                     channel.close();
 
                     return null;
@@ -119,7 +166,7 @@ public final class PaperInjection extends NettyInjection {
             }
 
             // Check if there's already a user playing with that nickname
-            if (Bukkit.getOnlinePlayers().stream().anyMatch(player -> player.getName().equals(name))) {
+            if (Main.getApi().isOnline(name)) {
                 channel.write(new ClientboundLoginDisconnectPacket(Component.nullToEmpty(PluginMessages.getMessage("prevent double join error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", name)))));
                 channel.close();
 
@@ -129,14 +176,22 @@ public final class PaperInjection extends NettyInjection {
             // Retrieve account and verify the case-sensitive issue
             @Nullable Account account = Main.getApi().getAccount(name).orElse(null);
             if (account != null && !account.getName().equals(name) && Main.getConfiguration().isCaseSensitiveNicknames()) {
-                channel.write(new ClientboundLoginDisconnectPacket(Component.nullToEmpty(PluginMessages.getMessage("nickname case sensitive error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", name)))));
+                channel.write(new ClientboundLoginDisconnectPacket(Component.nullToEmpty(PluginMessages.getMessage("nickname case sensitive error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("current_nickname", name), new PluginMessages.Placeholder("account_nickname", account.getName())))));
                 channel.close();
 
                 return null;
             }
 
             // Create connection instance
-            @Nullable ConnectionImpl connection = ConnectionImpl.retrieve(name).orElse(null);
+            @Nullable ConnectionImpl connection = ConnectionImpl.retrieve(Main.getApi(), name).orElse(null);
+
+            // The connection could have the same nickname but a different case, if the nicknames are case-folded
+            if (connection != null && !connection.getName().equals(name)) {
+                channel.write(new ClientboundLoginDisconnectPacket(Component.nullToEmpty(PluginMessages.getMessage("nickname case sensitive error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("current_nickname", name), new PluginMessages.Placeholder("account_nickname", connection.getName())))));
+                channel.close();
+
+                return null;
+            }
 
             // Check cracked
             if (!Main.getConfiguration().getWhitelist().isAllowCrackedUsers() && (account != null && account.getType() == Account.Type.CRACKED || connection != null && connection.getType() == Account.Type.CRACKED)) {
@@ -165,111 +220,134 @@ public final class PaperInjection extends NettyInjection {
         } else if (message instanceof @NotNull ServerboundKeyPacket begin) {
             // Connection and modules
             @NotNull ConnectionImpl connection = ConnectionImpl.retrieve(channel).orElseThrow(() -> new NullPointerException("cannot retrieve client's connection"));
-            @Nullable Account account = connection.getAccount();
 
             // Start encryption
-            try {
-                @NotNull MinecraftServer server = ((CraftServer) Bukkit.getServer()).getServer();
-                @NotNull net.minecraft.network.Connection network = getNetworkManager(channel).orElseThrow(() -> new NullPointerException("cannot retrieve network manager")); // Network Manager
-                @Nullable ServerLoginPacketListenerImpl listener = (ServerLoginPacketListenerImpl) network.getPacketListener(); // Login Listener
+            @NotNull MinecraftServer server = ((CraftServer) Bukkit.getServer()).getServer();
+            @NotNull net.minecraft.network.Connection network = getNetworkManager(channel).orElseThrow(() -> new NullPointerException("cannot retrieve network manager")); // Network Manager
+            @Nullable ServerLoginPacketListenerImpl listener = (ServerLoginPacketListenerImpl) network.getPacketListener(); // Login Listener
 
-                @NotNull SocketAddress remoteAddress = network.getRemoteAddress(); // Remote Address
+            @NotNull SocketAddress remoteAddress = network.getRemoteAddress(); // Remote Address
 
-                // Check if listener is not null
-                if (listener == null) {
-                    throw new IllegalStateException("cannot find the valid login listener of connection");
-                }
+            // Check if listener is not null
+            if (listener == null) {
+                throw new IllegalStateException("cannot find the valid login listener of connection");
+            }
 
-                // Keys
-                @NotNull KeyPair keys = server.getKeyPair(); // Get KeyPair
-                @NotNull PrivateKey privateKey = keys.getPrivate(); // Get KeyPair's private key
-                @NotNull PublicKey publicKey = keys.getPublic(); // Get KeyPair's public key
+            // Keys
+            @NotNull KeyPair keys = server.getKeyPair(); // Get KeyPair
+            @NotNull PrivateKey privateKey = keys.getPrivate(); // Get KeyPair's private key
+            @NotNull PublicKey publicKey = keys.getPublic(); // Get KeyPair's public key
 
-                // Address and encryption
-                boolean usesAuthentication = Bukkit.getServer().getOnlineMode(); // Uses Authentication
-                byte[] encryption = Reflections.getEncryptionBytes(listener);
-                @Nullable InetAddress address = usesAuthentication && remoteAddress instanceof InetSocketAddress ? ((InetSocketAddress) remoteAddress).getAddress() : null;
+            // Address and encryption
+            boolean usesAuthentication = Bukkit.getServer().getOnlineMode(); // Uses Authentication
+            byte[] encryption = Reflections.getEncryptionBytes(listener);
+            @Nullable InetAddress address = usesAuthentication && remoteAddress instanceof InetSocketAddress ? ((InetSocketAddress) remoteAddress).getAddress() : null;
 
-                // Hash
-                @NotNull String secret;
+            // Hash
+            @NotNull String secret;
 
-                try {
-                    if (!begin.isChallengeValid(encryption, privateKey)) { // Check if challenge is valid
-                        throw new IllegalStateException("encryption arrays are not equals");
-                    } else {
-                        @NotNull SecretKey secretKey = begin.getSecretKey(privateKey); // Get Secret Key
-                        secret = new BigInteger(Crypt.digestData("", publicKey, secretKey)).toString(16);
-                    }
-                } catch (@NotNull Exception exception) {
-                    throw new IllegalStateException("cannot proceed with the cryptography", exception);
+            try {
+                if (!begin.isChallengeValid(encryption, privateKey)) { // Check if challenge is valid
+                    throw new IllegalStateException("encryption arrays are not equals");
+                } else {
+                    @NotNull SecretKey secretKey = begin.getSecretKey(privateKey); // Get Secret Key
+                    secret = new BigInteger(Crypt.digestData("", publicKey, secretKey)).toString(16);
                 }
+            } catch (@NotNull Exception exception) {
+                throw new IllegalStateException("cannot proceed with the cryptography", exception);
+            }
 
-                // Check if the session was successful
-                @NotNull MinecraftSessionService service = server.getSessionService();
-                @Nullable ProfileResult result = service.hasJoinedServer(connection.getName(), secret, address);
+            // Check if the session was successful. The verification runs outside the event loop,
+            // and the channel stops reading until the mojang's servers respond.
+            @NotNull MinecraftSessionService service = server.getSessionService();
+            channel.config().setAutoRead(false);
 
+            verifier.verify(() -> service.hasJoinedServer(connection.getName(), secret, address)).whenComplete((result, throwable) -> {
                 try {
-                    if (result != null && result.profile() != null) try {
-                        @NotNull GameProfile profile = result.profile();
+                    channel.eventLoop().execute(() -> {
+                        try {
+                            if (!channel.isActive()) {
+                                return;
+                            } else if (throwable != null) {
+                                exception(context, new RuntimeException("The authentication servers/methods are unavailable.", throwable));
+                            } else {
+                                encrypt(channel, connection, network, listener, begin, privateKey, result);
+                            }
+                        } finally {
+                            channel.config().setAutoRead(true);
+                        }
+                    });
+                } catch (@NotNull RejectedExecutionException ignore) {
+                    // The event loop is shutting down, the connection cannot proceed
+                    channel.close();
+                }
+            });
+
+            return null;
+        }
+
+        // Finish
+        return message;
+    }
 
-                        connection.setType(Account.Type.PREMIUM);
-                        connection.setUniqueId(profile.getId());
+    private void encrypt(@NotNull Channel channel, @NotNull ConnectionImpl connection, @NotNull net.minecraft.network.Connection network, @NotNull ServerLoginPacketListenerImpl listener, @NotNull ServerboundKeyPacket begin, @NotNull PrivateKey privateKey, @Nullable ProfileResult result) {
+        @Nullable Account account = connection.getAccount();
 
-                        listener.handleKey(begin); // Handle Key
-                    } catch (@NotNull Throwable throwable) {
-                        Main.log.error("Cannot authenticate premium player {}: {}", connection.getName(), throwable.getMessage());
-                        Main.log.atDebug().setCause(throwable).log();
+        try {
+            if (result != null && result.profile() != null) try {
+                @NotNull GameProfile profile = result.profile();
 
-                        Main.getExceptionHandler().handle(throwable);
-                    } else try {
-                        if (account != null && account.getType() == Account.Type.PREMIUM) {
-                            channel.write(new ClientboundLoginDisconnectPacket(Component.nullToEmpty(PluginMessages.getMessage("premium authentication.premium account required error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName())))));
-                            channel.close();
+                connection.setType(Account.Type.PREMIUM);
+                connection.setUniqueId(profile.getId());
 
-                            return null;
-                        }
+                listener.handleKey(begin); // Handle Key
+            } catch (@NotNull Throwable throwable) {
+                Main.log.error("Cannot authenticate premium player {}: {}", connection.getName(), throwable.getMessage());
+                Main.log.atDebug().setCause(throwable).log();
 
-                        // Initialize
-                        @NotNull GameProfile profile = Reflections.initializeUniqueId(listener, connection.getName());
+                Main.getExceptionHandler().handle(throwable);
+            } else try {
+                if (account != null && account.getType() == Account.Type.PREMIUM) {
+                    channel.write(new ClientboundLoginDisconnectPacket(Component.nullToEmpty(PluginMessages.getMessage("premium authentication.premium account required error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName())))));
+                    channel.close();
 
-                        connection.setUniqueId(profile.getId());
-                        connection.setType(Account.Type.CRACKED);
+                    return;
+                }
 
-                        // Check cracked
-                        if (!Main.getConfiguration().getWhitelist().isAllowCrackedUsers() && (account != null && account.getType() == Account.Type.CRACKED || connection.getType() == Account.Type.CRACKED)) {
-                            channel.write(new ClientboundLoginDisconnectPacket(Component.nullToEmpty(PluginMessages.getMessage("whitelist.cracked users not allowed", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName()), new PluginMessages.Placeholder("uuid", String.valueOf(connection.getUniqueId()))))));
-                            channel.close();
+                // Initialize
+                @NotNull GameProfile profile = Reflections.initializeUniqueId(listener, connection.getName());
 
-                            return null;
-                        }
+                connection.setUniqueId(profile.getId());
+                connection.setType(Account.Type.CRACKED);
 
-                        // Setup encryption
-                        @NotNull SecretKey secretkey = begin.getSecretKey(privateKey); // Get Secret Key
-                        network.setupEncryption(secretkey);
+                // Check cracked
+                if (!Main.getConfiguration().getWhitelist().isAllowCrackedUsers() && (account != null && account.getType() == Account.Type.CRACKED || connection.getType() == Account.Type.CRACKED)) {
+                    channel.write(new ClientboundLoginDisconnectPacket(Component.nullToEmpty(PluginMessages.getMessage("whitelist.cracked users not allowed", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName()), new PluginMessages.Placeholder("uuid", String.valueOf(connection.getUniqueId()))))));
+                    channel.close();
 
-                        // Start thread
-                        new FireEventsThread(connection, listener, profile).start();
-                    } catch (@NotNull Throwable throwable) {
-                        Main.log.error("Cannot authenticate cracked player {}: {}", connection.getName(), throwable.getMessage());
-                        Main.log.atDebug().setCause(throwable).log();
+                    return;
+                }
 
-                        Main.getExceptionHandler().handle(throwable);
-                    }
-                } finally {
-                    // Change connection's state
-                    connection.setState(State.ENCRYPTED);
+                // Setup encryption
+                @NotNull SecretKey secretkey = begin.getSecretKey(privateKey); // Get Secret Key
+                network.setupEncryption(secretkey);
+
+                // Fire the events
+                if (!executor.execute(connection.getName(), new FireEvents(connection, listener, profile))) {
+                    channel.write(new ClientboundLoginDisconnectPacket(Component.nullToEmpty(PluginMessages.getMessage("server busy error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName())))));
+                    channel.close();
                 }
+            } catch (@NotNull Throwable throwable) {
+                Main.log.error("Cannot authenticate cracked player {}: {}", connection.getName(), throwable.getMessage());
+                Main.log.atDebug().setCause(throwable).log();
 
-                return null;
-            } catch (@NotNull AuthenticationUnavailableException e) {
-                throw new RuntimeException("The authentication servers/methods are unavailable.", e);
+                Main.getExceptionHandler().handle(throwable);
             }
+        } finally {
+            // Change connection's state
+            connection.setState(State.ENCRYPTED);
         }
-
-        // Finish
-        return message;
     }
-
     @Override
     protected @UnknownNullability Object write(@NotNull ChannelHandlerContext context, @NotNull Object message, @NotNull ChannelPromise promise) throws IOException {
         @NotNull Channel channel = context.channel();
@@ -321,7 +399,11 @@ public final class PaperInjection extends NettyInjection {
                     connection.setUniqueId(profile.getId());
 
                     // Fire the events
-                    new FireEventsThread(connection, listener, profile).start();
+                    if (!executor.execute(connection.getName(), new FireEvents(connection, listener, profile))) {
+                        channel.write(new ClientboundLoginDisconnectPacket(Component.nullToEmpty(PluginMessages.getMessage("server busy error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName())))));
+                        channel.close();
+                    }
+
                     return null;
                 } else {
                     // Change connection's state
@@ -354,8 +436,8 @@ public final class PaperInjection extends NettyInjection {
                 // Change state to success
                 connection.setState(State.SUCCESS);
 
-                // Eject
-                eject(channel);
+                // Keep dropping the blocked play packets until the player authenticates
+                play(channel, connection.getUniqueId(), gate);
             } finally {
                 // Flush connection
                 connection.flush();
@@ -426,11 +508,11 @@ public final class PaperInjection extends NettyInjection {
     }
 
     @Override
-    protected void exception(@NotNull ChannelHandlerContext context, @NotNull Throwable cause) throws IOException {
+    protected void exception(@NotNull ChannelHandlerContext context, @NotNull Throwable cause) {
         @NotNull Channel channel = context.channel();
 
         // Close connection
-        channel.write(new ClientboundLoginDisconnectPacket(Component.nullToEmpty(PluginMessages.getMessage("authentication error", PluginMessages.Placeholder.PREFIX))));
+        channel.write(new ClientboundLoginDisconnectPacket(authenticationError));
         channel.close();
         
         // Handle the exception
@@ -443,15 +525,13 @@ public final class PaperInjection extends NettyInjection {
 
     // Classes
 
-    private static final class FireEventsThread extends Thread {
+    private static final class FireEvents implements Runnable {
 
         private final @NotNull Connection connection;
         private final @NotNull ServerLoginPacketListenerImpl listener;
         private final @NotNull GameProfile profile;
 
-        private FireEventsThread(@NotNull Connection connection, @NotNull ServerLoginPacketListenerImpl listener, @NotNull GameProfile profile) {
-            super("User Authentication '" + connection.getName() + "'");
-
+        private FireEvents(@NotNull Connection connection, @NotNull ServerLoginPacketListenerImpl listener, @NotNull GameProfile profile) {
             this.connection = connection;
             this.listener = listener;
             this.profile = profile;
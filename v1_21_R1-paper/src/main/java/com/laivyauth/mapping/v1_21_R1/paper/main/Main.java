@@ -8,7 +8,9 @@ import com.laivyauth.api.platform.Version;
 import com.laivyauth.mapping.exception.ExceptionHandler;
 import com.laivyauth.mapping.impl.ConnectionImpl;
 import com.laivyauth.mapping.netty.NettyInjection;
+import com.laivyauth.mapping.reflections.Accessors;
 import com.laivyauth.mapping.v1_21_R1.paper.PaperInjection;
+import com.laivyauth.mapping.v1_21_R1.paper.reflections.Reflections;
 import net.minecraft.SharedConstants;
 import org.bukkit.Bukkit;
 import org.bukkit.craftbukkit.CraftServer;
@@ -125,6 +127,9 @@ public final class Main implements Mapping {
     @Override
     public void start() {
         if (Platform.PAPER.isCompatible()) {
+            // Resolve the reflection accessors, it fails if this server build isn't supported
+            Accessors.initialize(Reflections.class);
+
             // Configure online-mode
             if (getConfiguration().getPremiumAuthentication().isEnabled()) {
                 // Set 'online-mode' to true
@@ -1,5 +1,7 @@
 package com.laivyauth.mapping.v1_21_R1.paper.reflections;
 
+import com.laivyauth.mapping.netty.PacketHandlers;
+import com.laivyauth.mapping.reflections.Accessors;
 import com.mojang.authlib.GameProfile;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -10,11 +12,8 @@ import net.minecraft.server.network.ServerLoginPacketListenerImpl;
 import org.bukkit.Bukkit;
 import org.bukkit.craftbukkit.CraftServer;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.net.InetAddress;
 import java.util.List;
 import java.util.Map;
@@ -24,89 +23,68 @@ public final class Reflections {
 
     // Static initializers
 
+    // Accessors, resolved once when the mapping starts
+    private static final @NotNull MethodHandle CHANNELS = Accessors.getter(ServerConnectionListener.class, "channels", List.class);
+    private static final @NotNull MethodHandle CHALLENGE = Accessors.getter(ServerLoginPacketListenerImpl.class, "challenge", byte[].class);
+    private static final @NotNull MethodHandle THROTTLE_TRACKER = Accessors.getter(ServerHandshakePacketListenerImpl.class, "throttleTracker", Map.class);
+
+    private static final @NotNull MethodHandle CALL_PLAYER_PRE_LOGIN_EVENTS = Accessors.method(ServerLoginPacketListenerImpl.class, "callPlayerPreLoginEvents", void.class, GameProfile.class);
+    private static final @NotNull MethodHandle START_CLIENT_VERIFICATION = Accessors.method(ServerLoginPacketListenerImpl.class, "startClientVerification", void.class, GameProfile.class);
+    private static final @NotNull MethodHandle CREATE_OFFLINE_PROFILE = Accessors.method(ServerLoginPacketListenerImpl.class, "createOfflineProfile", GameProfile.class, String.class);
+
     public static @NotNull Channel getServerChannel() {
         try {
             // Retrieve server's connection
             @NotNull ServerConnectionListener connection = ((CraftServer) Bukkit.getServer()).getServer().getConnection();
 
             // Retrieve channel futures
-            @NotNull Field field = ServerConnectionListener.class.getDeclaredField("channels");
-            field.setAccessible(true);
-
             //noinspection unchecked
-            @NotNull List<ChannelFuture> list = (List<ChannelFuture>) field.get(connection);
+            @NotNull List<ChannelFuture> list = (List<ChannelFuture>) CHANNELS.invokeExact(connection);
 
             //noinspection SequencedCollectionMethodCanBeUsed
             return list.get(0).channel();
-        } catch (@NotNull NoSuchFieldException e) {
-            throw new RuntimeException("cannot find channels field", e);
-        } catch (@NotNull IllegalAccessException e) {
-            throw new RuntimeException(e);
+        } catch (@NotNull Throwable throwable) {
+            throw new RuntimeException("cannot retrieve server channels", throwable);
         }
     }
 
     public static void finish(@NotNull ServerLoginPacketListenerImpl listener, @NotNull GameProfile profile) {
         try {
-            @NotNull Method method = ServerLoginPacketListenerImpl.class.getDeclaredMethod("callPlayerPreLoginEvents", GameProfile.class);
-            method.setAccessible(true);
-
-            method.invoke(listener, profile);
+            CALL_PLAYER_PRE_LOGIN_EVENTS.invokeExact(listener, profile);
 
             // Mark login state
-            method = ServerLoginPacketListenerImpl.class.getDeclaredMethod("startClientVerification", GameProfile.class);
-            method.setAccessible(true);
-
-            method.invoke(listener, profile);
-        } catch (@NotNull NoSuchMethodException e) {
-            throw new RuntimeException("cannot find proper login finish methods", e);
-        } catch (@NotNull IllegalAccessException e) {
-            throw new RuntimeException("cannot invoke login finish methods", e);
-        } catch (@NotNull InvocationTargetException e) {
-            throw new RuntimeException("exception trying to invoke player login finish methods", e);
+            START_CLIENT_VERIFICATION.invokeExact(listener, profile);
+        } catch (@NotNull Throwable throwable) {
+            throw new RuntimeException("exception trying to invoke player login finish methods", throwable);
         }
     }
     public static @NotNull Optional<Connection> getNetworkManager(@NotNull Channel channel) {
-        // Retrieve server connection
-        @Nullable ServerConnectionListener connection = ((CraftServer) Bukkit.getServer()).getServer().getConnection();
-        return connection.getConnections().stream().filter(network -> channel.equals(network.channel)).findFirst();
+        return Optional.ofNullable(PacketHandlers.get(channel, Connection.class));
     }
     public static byte[] getEncryptionBytes(@NotNull ServerLoginPacketListenerImpl listener) {
         try {
-            @NotNull Field field = listener.getClass().getDeclaredField("challenge");
-            field.setAccessible(true);
-
-            return (byte[]) field.get(listener);
-        } catch (@NotNull NoSuchFieldException e) {
-            throw new RuntimeException("cannot get encryption bytes from login listener", e);
-        } catch (@NotNull IllegalAccessException e) {
-            throw new RuntimeException();
+            return (byte[]) CHALLENGE.invokeExact(listener);
+        } catch (@NotNull Throwable throwable) {
+            throw new RuntimeException("cannot get encryption bytes from login listener", throwable);
         }
     }
     public static void resetThrottling(@NotNull InetAddress address) {
         try {
             // Retrieve throttle tracker's map instance
-            @NotNull Field field = ServerHandshakePacketListenerImpl.class.getDeclaredField("throttleTracker");
-            field.setAccessible(true);
-
             //noinspection unchecked
-            @NotNull Map<InetAddress, Long> map = (Map<InetAddress, Long>) field.get(null);
+            @NotNull Map<InetAddress, Long> map = (Map<InetAddress, Long>) THROTTLE_TRACKER.invokeExact();
 
             // Remove from map
             map.remove(address);
-        } catch (@NotNull NoSuchFieldException | @NotNull IllegalAccessException e) {
-            throw new RuntimeException("cannot retrieve/access throttle tracker field from handshake listener class", e);
+        } catch (@NotNull Throwable throwable) {
+            throw new RuntimeException("cannot retrieve throttle tracker field from handshake listener class", throwable);
         }
     }
     public static @NotNull GameProfile initializeUniqueId(@NotNull ServerLoginPacketListenerImpl listener, @NotNull String name) {
         try {
-            @NotNull Method initializeMethod = ServerLoginPacketListenerImpl.class.getDeclaredMethod("createOfflineProfile", String.class);
-            initializeMethod.setAccessible(true);
-
-            return (GameProfile) initializeMethod.invoke(listener, name);
-        } catch (@NotNull NoSuchMethodException e) {
-            throw new RuntimeException("cannot find uuid initialization method", e);
-        } catch (@NotNull InvocationTargetException | @NotNull IllegalAccessException e) {
-            throw new RuntimeException("cannot invoke or access uuid initialization method", e);
+            return (GameProfile) CREATE_OFFLINE_PROFILE.invokeExact(listener, name);
+        } catch (@NotNull Throwable throwable) {
+            throw new RuntimeException("cannot invoke uuid initialization method", throwable);
         }
     }
 
@@ -8,11 +8,13 @@ import com.laivyauth.api.platform.Platform;
 import com.laivyauth.api.platform.Protocol;
 import com.laivyauth.mapping.Handshake;
 import com.laivyauth.mapping.impl.ConnectionImpl;
+import com.laivyauth.mapping.login.LoginExecutor;
 import com.laivyauth.mapping.netty.NettyInjection;
+import com.laivyauth.mapping.netty.PlayGate;
+import com.laivyauth.mapping.session.SessionVerifier;
 import com.laivyauth.mapping.v1_21_R1.spigot.reflections.Reflections;
 import com.laivyauth.utilities.messages.PluginMessages;
 import com.mojang.authlib.GameProfile;
-import com.mojang.authlib.exceptions.AuthenticationUnavailableException;
 import com.mojang.authlib.minecraft.MinecraftSessionService;
 import com.mojang.authlib.yggdrasil.ProfileResult;
 import com.velocitypowered.natives.encryption.JavaVelocityCipher;
@@ -23,6 +25,12 @@ import io.netty.channel.ChannelPromise;
 import net.minecraft.network.NetworkManager;
 import net.minecraft.network.PacketDecrypter;
 import net.minecraft.network.PacketEncrypter;
+import net.minecraft.network.chat.IChatBaseComponent;
+import net.minecraft.network.protocol.game.PacketPlayInAutoRecipe;
+import net.minecraft.network.protocol.game.PacketPlayInBEdit;
+import net.minecraft.network.protocol.game.PacketPlayInEnchantItem;
+import net.minecraft.network.protocol.game.PacketPlayInUpdateSign;
+import net.minecraft.network.protocol.game.PacketPlayInUseEntity;
 import net.minecraft.network.protocol.handshake.ClientIntent;
 import net.minecraft.network.protocol.handshake.PacketHandshakingInSetProtocol;
 import net.minecraft.network.protocol.login.*;
@@ -47,6 +55,7 @@ import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.util.Arrays;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import static com.laivyauth.mapping.v1_21_R1.spigot.main.Main.*;
 
@@ -55,9 +64,43 @@ public final class SpigotInjection extends NettyInjection {
 
     // Object
 
+    private final @NotNull SessionVerifier verifier;
+    private final @NotNull LoginExecutor executor;
+    private final @NotNull PlayGate gate;
+
+    // Prebuilt, since it doesn't have placeholders
+    private final @NotNull IChatBaseComponent authenticationError = Reflections.chat(PluginMessages.getMessage("authentication error"));
+
     public SpigotInjection() {
         // Super class instance with server channel
-        super(Reflections.getServerChannel());
+        super(Reflections.getServerChannel(), getConfiguration().getAdmission());
+
+        // Premium sessions verifier
+        this.verifier = new SessionVerifier(Main.getConfiguration().getPremiumAuthentication().getVerificationThreads(), Main.getConfiguration().getPremiumAuthentication().getVerificationTimeout());
+
+        // Login completions executor
+        this.executor = new LoginExecutor(Main.getConfiguration().getAuthentication().getLoginThreads());
+
+        // Play packets dropped until the player authenticates
+        this.gate = new PlayGate(getApi(),
+                PacketPlayInAutoRecipe.class,
+                PacketPlayInBEdit.class,
+                PacketPlayInEnchantItem.class,
+                PacketPlayInUpdateSign.class,
+                PacketPlayInUseEntity.class
+        );
+    }
+
+    // Flushable
+
+    @Override
+    public void flush() throws IOException {
+        try {
+            super.flush();
+        } finally {
+            verifier.close();
+            executor.close();
+        }
     }
 
     // Modules
@@ -93,7 +136,7 @@ public final class SpigotInjection extends NettyInjection {
             @NotNull String name = packet.b(); // Name
 
             // Check if there's a player already connected with this name
-            if (Bukkit.getOnlinePlayers().stream().anyMatch(player -> player.getName().equals(name))) {
+            if (getApi().isOnline(name)) {
                 channel.write(new PacketLoginOutDisconnect(Reflections.chat(PluginMessages.getMessage("accounts.nickname already connected", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", name)))));
                 channel.close();
 
@@ -102,11 +145,16 @@ public final class SpigotInjection extends NettyInjection {
 
             // Check connections at this address
             int maximumConnections = getConfiguration().getAccounts().getMaximumAuthenticatedPerIp();
-            if (maximumConnections > 0) {
-                long connections = Bukkit.getOnlinePlayers().stream().filter(player -> player.getAddress() != null && player.getAddress().getHostName().equals(handshake.getAddress().toString())).count();
+
+            // The network manager's address is the forwarded one behind a proxy, the same of the online players
+            @NotNull SocketAddress socket = Reflections.getNetworkManager(channel).orElseThrow(() -> new NullPointerException("cannot retrieve network manager")).d();
+            @Nullable InetAddress remote = socket instanceof InetSocketAddress ? ((InetSocketAddress) socket).getAddress() : null;
+
+            if (maximumConnections > 0 && remote != null) {
+                int connections = getApi().getOnlineCount(remote);
 
                 if (connections >= maximumConnections) {
-                    channel.write(new PacketLoginOutDisconnect(Reflections.chat(PluginMessages.getMessage("accounts.maximum connected per ip", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("current", connections), new PluginMessages.Placeholder("maximum", maximumConnections), new PluginMessages.Placeholder("address", handshake.getAddress().toString())))));
+                    channel.write(new PacketLoginOutDisconnect(Reflections.chat(PluginMessages.getMessage("accounts.maximum connected per ip", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("current", connections), new PluginMessages.Placeholder("maximum", maximumConnections), new PluginMessages.Placeholder("address", remote.getHostAddress())))));
                     channel.close();
 
                     return null;
@@ -122,7 +170,7 @@ public final class SpigotInjection extends NettyInjection {
             }
 
             // Check if there's already a user playing with that nickname
-            if (Bukkit.getOnlinePlayers().stream().anyMatch(player -> player.getName().equals(name))) {
+            if (getApi().isOnline(name)) {
                 channel.write(new PacketLoginOutDisconnect(Reflections.chat(PluginMessages.getMessage("prevent double join error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", name)))));
                 channel.close();
 
@@ -132,14 +180,22 @@ public final class SpigotInjection extends NettyInjection {
             // Retrieve account and verify the case-sensitive issue
             @Nullable Account account = getApi().getAccount(name).orElse(null);
             if (account != null && !account.getName().equals(name) && getConfiguration().isCaseSensitiveNicknames()) {
-                channel.write(new PacketLoginOutDisconnect(Reflections.chat(PluginMessages.getMessage("nickname case sensitive error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", name)))));
+                channel.write(new PacketLoginOutDisconnect(Reflections.chat(PluginMessages.getMessage("nickname case sensitive error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("current_nickname", name), new PluginMessages.Placeholder("account_nickname", account.getName())))));
                 channel.close();
 
                 return null;
             }
 
             // Create connection instance
-            @Nullable ConnectionImpl connection = ConnectionImpl.retrieve(name).orElse(null);
+            @Nullable ConnectionImpl connection = ConnectionImpl.retrieve(getApi(), name).orElse(null);
+
+            // The connection could have the same nickname but a different case, if the nicknames are case-folded
+            if (connection != null && !connection.getName().equals(name)) {
+                channel.write(new PacketLoginOutDisconnect(Reflections.chat(PluginMessages.getMessage("nickname case sensitive error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("current_nickname", name), new PluginMessages.Placeholder("account_nickname", connection.getName())))));
+                channel.close();
+
+                return null;
+            }
 
             // Check cracked
             if (!getConfiguration().getWhitelist().isAllowCrackedUsers() && (account != null && account.getType() == Account.Type.CRACKED || connection != null && connection.getType() == Account.Type.CRACKED)) {
@@ -168,132 +224,155 @@ public final class SpigotInjection extends NettyInjection {
         } else if (message instanceof @NotNull PacketLoginInEncryptionBegin begin) {
             // Connection and modules
             @NotNull ConnectionImpl connection = ConnectionImpl.retrieve(channel).orElseThrow(() -> new NullPointerException("cannot retrieve client's connection"));
-            @Nullable Account account = connection.getAccount();
 
             // Start encryption
-            try {
-                @NotNull MinecraftServer server = ((CraftServer) Bukkit.getServer()).getServer();
-                @NotNull NetworkManager network = Reflections.getNetworkManager(channel).orElseThrow(() -> new NullPointerException("cannot retrieve network manager")); // Network Manager
-                @Nullable LoginListener listener = (LoginListener) network.k(); // Login Listener
+            @NotNull MinecraftServer server = ((CraftServer) Bukkit.getServer()).getServer();
+            @NotNull NetworkManager network = Reflections.getNetworkManager(channel).orElseThrow(() -> new NullPointerException("cannot retrieve network manager")); // Network Manager
+            @Nullable LoginListener listener = (LoginListener) network.k(); // Login Listener
 
-                @NotNull SocketAddress remoteAddress = network.d(); // Remote Address
+            @NotNull SocketAddress remoteAddress = network.d(); // Remote Address
 
-                // Check if listener is not null
-                if (listener == null) {
-                    throw new IllegalStateException("cannot find the valid login listener of connection");
-                }
+            // Check if listener is not null
+            if (listener == null) {
+                throw new IllegalStateException("cannot find the valid login listener of connection");
+            }
 
-                // Keys
-                @NotNull KeyPair keys = server.Q(); // Get KeyPair
-                @NotNull PrivateKey privateKey = keys.getPrivate(); // Get KeyPair's private key
-                @NotNull PublicKey publicKey = keys.getPublic(); // Get KeyPair's public key
+            // Keys
+            @NotNull KeyPair keys = server.Q(); // Get KeyPair
+            @NotNull PrivateKey privateKey = keys.getPrivate(); // Get KeyPair's private key
+            @NotNull PublicKey publicKey = keys.getPublic(); // Get KeyPair's public key
 
-                // Address and encryption
-                boolean usesAuthentication = Bukkit.getServer().getOnlineMode(); // Uses Authentication
-                byte[] encryption = Reflections.getEncryptionBytes(listener);
-                @Nullable InetAddress address = usesAuthentication && remoteAddress instanceof InetSocketAddress ? ((InetSocketAddress) remoteAddress).getAddress() : null;
+            // Address and encryption
+            boolean usesAuthentication = Bukkit.getServer().getOnlineMode(); // Uses Authentication
+            byte[] encryption = Reflections.getEncryptionBytes(listener);
+            @Nullable InetAddress address = usesAuthentication && remoteAddress instanceof InetSocketAddress ? ((InetSocketAddress) remoteAddress).getAddress() : null;
 
-                // Hash
-                @NotNull String secret;
+            // Hash
+            @NotNull String secret;
 
-                try {
-                    if (!begin.a(encryption, privateKey)) { // Check if challenge is valid
-                        throw new IllegalStateException("encryption arrays are not equals");
-                    } else {
-                        @NotNull SecretKey secretKey = begin.a(privateKey); // Get Secret Key
-                        secret = new BigInteger(MinecraftEncryption.a("", publicKey, secretKey)).toString(16);
-                    }
-                } catch (@NotNull Exception exception) {
-                    throw new IllegalStateException("cannot proceed with the cryptography", exception);
+            try {
+                if (!begin.a(encryption, privateKey)) { // Check if challenge is valid
+                    throw new IllegalStateException("encryption arrays are not equals");
+                } else {
+                    @NotNull SecretKey secretKey = begin.a(privateKey); // Get Secret Key
+                    secret = new BigInteger(MinecraftEncryption.a("", publicKey, secretKey)).toString(16);
                 }
+            } catch (@NotNull Exception exception) {
+                throw new IllegalStateException("cannot proceed with the cryptography", exception);
+            }
 
-                // Check if the session was successful
-                @NotNull MinecraftSessionService service = server.ar();
-                @Nullable ProfileResult result = service.hasJoinedServer(connection.getName(), secret, address);
+            // Check if the session was successful. The verification runs outside the event loop,
+            // and the channel stops reading until the mojang's servers respond.
+            @NotNull MinecraftSessionService service = server.ar();
+            channel.config().setAutoRead(false);
 
+            verifier.verify(() -> service.hasJoinedServer(connection.getName(), secret, address)).whenComplete((result, throwable) -> {
                 try {
-                    if (result != null && result.profile() != null) try {
-                        @NotNull GameProfile profile = result.profile();
+                    channel.eventLoop().execute(() -> {
+                        try {
+                            if (!channel.isActive()) {
+                                return;
+                            } else if (throwable != null) {
+                                exception(context, new RuntimeException("The authentication servers/methods are unavailable.", throwable));
+                            } else {
+                                encrypt(channel, connection, listener, begin, privateKey, result);
+                            }
+                        } finally {
+                            channel.config().setAutoRead(true);
+                        }
+                    });
+                } catch (@NotNull RejectedExecutionException ignore) {
+                    // The event loop is shutting down, the connection cannot proceed
+                    channel.close();
+                }
+            });
 
-                        connection.setType(Account.Type.PREMIUM);
-                        connection.setUniqueId(profile.getId());
+            return null;
+        }
 
-                        listener.a(begin); // Handle Key
-                    } catch (@NotNull Throwable throwable) {
-                        log.error("Cannot authenticate premium player {}: {}", connection.getName(), throwable.getMessage());
-                        log.atDebug().setCause(throwable).log();
+        // Finish
+        return message;
+    }
+    private void encrypt(@NotNull Channel channel, @NotNull ConnectionImpl connection, @NotNull LoginListener listener, @NotNull PacketLoginInEncryptionBegin begin, @NotNull PrivateKey privateKey, @Nullable ProfileResult result) {
+        @Nullable Account account = connection.getAccount();
 
-                        getExceptionHandler().handle(throwable);
-                    } else try {
-                        if (account != null && account.getType() == Account.Type.PREMIUM) {
-                            channel.write(new PacketLoginOutDisconnect(Reflections.chat(PluginMessages.getMessage("premium authentication.premium account required error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName())))));
-                            channel.close();
+        try {
+            if (result != null && result.profile() != null) try {
+                @NotNull GameProfile profile = result.profile();
 
-                            return null;
-                        }
+                connection.setType(Account.Type.PREMIUM);
+                connection.setUniqueId(profile.getId());
 
-                        // Initialize
-                        @NotNull GameProfile profile = Reflections.initializeUniqueId(listener, connection.getName());
+                listener.a(begin); // Handle Key
+            } catch (@NotNull Throwable throwable) {
+                log.error("Cannot authenticate premium player {}: {}", connection.getName(), throwable.getMessage());
+                log.atDebug().setCause(throwable).log();
 
-                        connection.setUniqueId(profile.getId());
-                        connection.setType(Account.Type.CRACKED);
+                getExceptionHandler().handle(throwable);
+            } else try {
+                if (account != null && account.getType() == Account.Type.PREMIUM) {
+                    channel.write(new PacketLoginOutDisconnect(Reflections.chat(PluginMessages.getMessage("premium authentication.premium account required error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName())))));
+                    channel.close();
 
-                        // Check cracked
-                        if (!getConfiguration().getWhitelist().isAllowCrackedUsers() && (account != null && account.getType() == Account.Type.CRACKED || connection.getType() == Account.Type.CRACKED)) {
-                            channel.write(new PacketLoginOutDisconnect(Reflections.chat(PluginMessages.getMessage("whitelist.cracked users not allowed", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName()), new PluginMessages.Placeholder("uuid", String.valueOf(connection.getUniqueId()))))));
-                            channel.close();
+                    return;
+                }
 
-                            return null;
-                        }
+                // Initialize
+                @NotNull GameProfile profile = Reflections.initializeUniqueId(listener, connection.getName());
 
-                        // Encrypt and Decrypt modules
-                        @NotNull SecretKey secretkey = begin.a(privateKey); // Get Secret Key
+                connection.setUniqueId(profile.getId());
+                connection.setType(Account.Type.CRACKED);
 
-                        // Create encrypter and decrypters
-                        @NotNull PacketDecrypter decrypter;
-                        @NotNull PacketEncrypter encrypter;
+                // Check cracked
+                if (!getConfiguration().getWhitelist().isAllowCrackedUsers() && (account != null && account.getType() == Account.Type.CRACKED || connection.getType() == Account.Type.CRACKED)) {
+                    channel.write(new PacketLoginOutDisconnect(Reflections.chat(PluginMessages.getMessage("whitelist.cracked users not allowed", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName()), new PluginMessages.Placeholder("uuid", String.valueOf(connection.getUniqueId()))))));
+                    channel.close();
 
-                        if (Platform.getCurrent() == Platform.PAPER) {
-                            //noinspection JavaReflectionMemberAccess
-                            @NotNull Constructor<PacketDecrypter> decrypterConstructor = PacketDecrypter.class.getConstructor(VelocityCipher.class);
-                            decrypterConstructor.setAccessible(true);
+                    return;
+                }
 
-                            //noinspection JavaReflectionMemberAccess
-                            @NotNull Constructor<PacketEncrypter> encrypterConstructor = PacketEncrypter.class.getConstructor(VelocityCipher.class);
-                            encrypterConstructor.setAccessible(true);
+                // Encrypt and Decrypt modules
+                @NotNull SecretKey secretkey = begin.a(privateKey); // Get Secret Key
 
-                            // Instance
-                            decrypter = decrypterConstructor.newInstance(JavaVelocityCipher.FACTORY.forDecryption(secretkey));
-                            encrypter = encrypterConstructor.newInstance(JavaVelocityCipher.FACTORY.forEncryption(secretkey));
-                        } else {
-                            decrypter = new PacketDecrypter(MinecraftEncryption.a(2, secretkey));
-                            encrypter = new PacketEncrypter(MinecraftEncryption.a(1, secretkey));
-                        }
+                // Create encrypter and decrypters
+                @NotNull PacketDecrypter decrypter;
+                @NotNull PacketEncrypter encrypter;
 
-                        // Add to channel pipeline
-                        channel.pipeline().addBefore("splitter", "decrypt", decrypter); // Get Secondary Cipher
-                        channel.pipeline().addBefore("prepender", "encrypt", encrypter); // Get Primary Cipher
+                if (Platform.getCurrent() == Platform.PAPER) {
+                    //noinspection JavaReflectionMemberAccess
+                    @NotNull Constructor<PacketDecrypter> decrypterConstructor = PacketDecrypter.class.getConstructor(VelocityCipher.class);
+                    decrypterConstructor.setAccessible(true);
 
-                        new FireEventsThread(connection, listener, profile).start();
-                    } catch (@NotNull Throwable throwable) {
-                        log.error("Cannot authenticate cracked player {}: {}", connection.getName(), throwable.getMessage());
-                        log.atDebug().setCause(throwable).log();
+                    //noinspection JavaReflectionMemberAccess
+                    @NotNull Constructor<PacketEncrypter> encrypterConstructor = PacketEncrypter.class.getConstructor(VelocityCipher.class);
+                    encrypterConstructor.setAccessible(true);
 
-                        getExceptionHandler().handle(throwable);
-                    }
-                } finally {
-                    // Change connection's state
-                    connection.setState(State.ENCRYPTED);
+                    // Instance
+                    decrypter = decrypterConstructor.newInstance(JavaVelocityCipher.FACTORY.forDecryption(secretkey));
+                    encrypter = encrypterConstructor.newInstance(JavaVelocityCipher.FACTORY.forEncryption(secretkey));
+                } else {
+                    decrypter = new PacketDecrypter(MinecraftEncryption.a(2, secretkey));
+                    encrypter = new PacketEncrypter(MinecraftEncryption.a(1, secretkey));
                 }
 
-                return null;
-            } catch (@NotNull AuthenticationUnavailableException e) {
-                throw new RuntimeException("The authentication servers/methods are unavailable.", e);
+                // Add to channel pipeline
+                channel.pipeline().addBefore("splitter", "decrypt", decrypter); // Get Secondary Cipher
+                channel.pipeline().addBefore("prepender", "encrypt", encrypter); // Get Primary Cipher
+
+                if (!executor.execute(connection.getName(), new FireEvents(connection, listener, profile))) {
+                    channel.write(new PacketLoginOutDisconnect(Reflections.chat(PluginMessages.getMessage("server busy error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName())))));
+                    channel.close();
+                }
+            } catch (@NotNull Throwable throwable) {
+                log.error("Cannot authenticate cracked player {}: {}", connection.getName(), throwable.getMessage());
+                log.atDebug().setCause(throwable).log();
+
+                getExceptionHandler().handle(throwable);
             }
+        } finally {
+            // Change connection's state
+            connection.setState(State.ENCRYPTED);
         }
-
-        // Finish
-        return message;
     }
     @Override
     protected @UnknownNullability Object write(@NotNull ChannelHandlerContext context, @NotNull Object message, @NotNull ChannelPromise promise) throws IOException {
@@ -344,7 +423,11 @@ public final class SpigotInjection extends NettyInjection {
                     connection.setUniqueId(profile.getId());
 
                     // Fire the events
-                    new FireEventsThread(connection, listener, profile).start();
+                    if (!executor.execute(connection.getName(), new FireEvents(connection, listener, profile))) {
+                        channel.write(new PacketLoginOutDisconnect(Reflections.chat(PluginMessages.getMessage("server busy error", PluginMessages.Placeholder.PREFIX, new PluginMessages.Placeholder("nickname", connection.getName())))));
+                        channel.close();
+                    }
+
                     return null;
                 } else {
                     // Change connection's state
@@ -377,8 +460,8 @@ public final class SpigotInjection extends NettyInjection {
                 // Change state to success
                 connection.setState(State.SUCCESS);
 
-                // Eject
-                eject(channel);
+                // Keep dropping the blocked play packets until the player authenticates
+                play(channel, connection.getUniqueId(), gate);
             } finally {
                 // Flush connection
                 connection.flush();
@@ -452,7 +535,7 @@ public final class SpigotInjection extends NettyInjection {
         @NotNull Channel channel = context.channel();
         
         // Close connection
-        channel.write(new PacketLoginOutDisconnect(Reflections.chat(PluginMessages.getMessage("authentication error", PluginMessages.Placeholder.PREFIX))));
+        channel.write(new PacketLoginOutDisconnect(authenticationError));
         channel.close();
 
         // Handle the exception
@@ -465,15 +548,13 @@ public final class SpigotInjection extends NettyInjection {
 
     // Classes
     
-    private static final class FireEventsThread extends Thread {
+    private static final class FireEvents implements Runnable {
 
         private final @NotNull Connection connection;
         private final @NotNull LoginListener listener;
         private final @NotNull GameProfile profile;
 
-        private FireEventsThread(@NotNull Connection connection, @NotNull LoginListener listener, @NotNull GameProfile profile) {
-            super("User Authentication '" + connection.getName() + "'");
-
+        private FireEvents(@NotNull Connection connection, @NotNull LoginListener listener, @NotNull GameProfile profile) {
             this.connection = connection;
             this.listener = listener;
             this.profile = profile;
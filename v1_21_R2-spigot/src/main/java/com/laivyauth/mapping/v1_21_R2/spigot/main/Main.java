@@ -8,7 +8,9 @@ import com.laivyauth.api.platform.Version;
 import com.laivyauth.mapping.exception.ExceptionHandler;
 import com.laivyauth.mapping.impl.ConnectionImpl;
 import com.laivyauth.mapping.netty.NettyInjection;
+import com.laivyauth.mapping.reflections.Accessors;
 import com.laivyauth.mapping.v1_21_R2.spigot.SpigotInjection;
+import com.laivyauth.mapping.v1_21_R2.spigot.reflections.Reflections;
 import net.minecraft.SharedConstants;
 import org.bukkit.Bukkit;
 import org.jetbrains.annotations.NotNull;
@@ -124,6 +126,9 @@ public final class Main implements Mapping {
     @Override
     public void start() {
         if (Platform.SPIGOT.isCompatible()) {
+            // Resolve the reflection accessors, it fails if this server build isn't supported
+            Accessors.initialize(Reflections.class);
+
             // Configure online-mode
             if (getConfiguration().getPremiumAuthentication().isEnabled()) {
                 // Set 'online-mode' to true